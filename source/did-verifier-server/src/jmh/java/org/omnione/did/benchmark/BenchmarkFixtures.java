@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Fixtures shared by the benchmarks.
+ * Sample VP policies are read from the project's sample directory, located through the
+ * "benchmark.projectDir" system property set by the jmh task; other fixtures are classpath resources.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Return the path of a sample VP policy.
+     *
+     * @param fileName The file name in sample/data/vpPolicy.
+     * @return The path of the policy.
+     */
+    static Path vpPolicy(String fileName) {
+        return Path.of(System.getProperty("benchmark.projectDir", "."), "sample", "data", "vpPolicy", fileName);
+    }
+
+    /**
+     * Read a fixture from the classpath.
+     *
+     * @param name The resource name below fixtures/.
+     * @return The content of the fixture.
+     */
+    static String resource(String name) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
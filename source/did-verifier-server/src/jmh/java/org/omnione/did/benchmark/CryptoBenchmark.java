@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.benchmark;
+
+import org.bouncycastle.jce.interfaces.ECPublicKey;
+import org.omnione.did.base.datamodel.data.KeyMaterial;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
+import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
+import org.omnione.did.base.util.BaseCryptoUtil;
+import org.omnione.did.base.util.BaseDigestUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.crypto.engines.CipherInfo;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+import org.omnione.did.crypto.util.CryptoUtils;
+import org.omnione.did.crypto.util.SignatureUtils;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.ECPrivateKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the cryptographic operations of a VP submission: deriving the E2E session key,
+ * decrypting the submitted VP and verifying a signature.
+ * The keys are generated on setup and the encrypted VP is the sample VP fixture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CryptoBenchmark {
+    private static final EccCurveType CURVE = EccCurveType.SECP_256_R1;
+    private static final SymmetricCipherType CIPHER = SymmetricCipherType.AES_256_CBC;
+    private static final SymmetricPaddingType PADDING = SymmetricPaddingType.PKCS5;
+
+    private byte[] clientPublicKey;
+    private byte[] serverPrivateKey;
+    private byte[] sharedSecret;
+    private byte[] nonce;
+    private byte[] sessionKey;
+    private byte[] iv;
+    private byte[] encryptedVp;
+    private byte[] hashedData;
+    private String encodedPublicKey;
+    private String encodedSignature;
+    private KeyMaterial keyMaterial;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairInterface serverKeyPair = BaseCryptoUtil.generateKeyPair(CURVE);
+        KeyPairInterface clientKeyPair = BaseCryptoUtil.generateKeyPair(CURVE);
+        clientPublicKey = BaseCryptoUtil.compressPublicKey(clientKeyPair.getPublicKey().getEncoded(), CURVE);
+        serverPrivateKey = ((ECPrivateKey) serverKeyPair.getPrivateKey()).getEncoded();
+
+        sharedSecret = BaseCryptoUtil.generateSharedSecret(clientPublicKey, serverPrivateKey, CURVE);
+        nonce = BaseCryptoUtil.generateNonce(16);
+        sessionKey = BaseCryptoUtil.mergeSharedSecretAndNonce(sharedSecret, nonce, CIPHER);
+        iv = BaseCryptoUtil.generateNonce(16);
+        byte[] vp = BenchmarkFixtures.resource("vp.json").getBytes(StandardCharsets.UTF_8);
+        encryptedVp = CryptoUtils.encrypt(vp,
+                new CipherInfo(CIPHER.toOmnioneSymmetricCipherType(), PADDING.toOmnioneSymmetricPaddingType()),
+                sessionKey, iv);
+
+        hashedData = BaseDigestUtil.generateHash(vp);
+        byte[] signature = SignatureUtils.generateCompactSignature((EcKeyPair) clientKeyPair, hashedData,
+                CURVE.toOmnioneEccCurveType());
+        encodedPublicKey = BaseMultibaseUtil.encode(
+                ((ECPublicKey) clientKeyPair.getPublicKey()).getQ().getEncoded(true));
+        encodedSignature = BaseMultibaseUtil.encode(signature);
+
+        VerificationMethod verificationMethod = new VerificationMethod();
+        verificationMethod.setId("pin");
+        verificationMethod.setType("Secp256r1VerificationKey2018");
+        verificationMethod.setPublicKeyMultibase(encodedPublicKey);
+        keyMaterial = BaseCryptoUtil.toKeyMaterial("did:omn:holder?versionId=1#pin", verificationMethod);
+    }
+
+    @Benchmark
+    public byte[] generateSharedSecret() {
+        return BaseCryptoUtil.generateSharedSecret(clientPublicKey, serverPrivateKey, CURVE);
+    }
+
+    @Benchmark
+    public byte[] mergeSharedSecretAndNonce() {
+        return BaseCryptoUtil.mergeSharedSecretAndNonce(sharedSecret, nonce, CIPHER);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return BaseCryptoUtil.decrypt(encryptedVp, sessionKey, iv, CIPHER, PADDING);
+    }
+
+    @Benchmark
+    public void verifySignature() {
+        BaseCryptoUtil.verifySignature(encodedPublicKey, encodedSignature, hashedData, CURVE);
+    }
+
+    @Benchmark
+    public void verifySignatureWithKeyMaterial() {
+        BaseCryptoUtil.verifySignature(keyMaterial, encodedSignature, hashedData);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.benchmark;
+
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.omnione.did.base.crypto.BouncyCastleCryptoProvider;
+import org.omnione.did.base.crypto.CryptoProvider;
+import org.omnione.did.base.crypto.CryptoProviderType;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
+import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
+import org.omnione.did.base.util.BaseCryptoUtil;
+import org.omnione.did.crypto.engines.CipherInfo;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+import org.omnione.did.crypto.util.CryptoUtils;
+import org.omnione.did.crypto.util.SignatureUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of each crypto provider on the operations that BaseCryptoUtil delegates to it,
+ * to choose the provider of each operation.
+ * The JCA provider delegates secp256k1 to the BouncyCastle provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CryptoProviderBenchmark {
+    private static final SymmetricCipherType CIPHER = SymmetricCipherType.AES_256_CBC;
+    private static final SymmetricPaddingType PADDING = SymmetricPaddingType.PKCS5;
+
+    @Param({"SDK", "BOUNCY_CASTLE", "JCA"})
+    private CryptoProviderType providerType;
+
+    @Param({"SECP_256_R1", "SECP_256_K1"})
+    private EccCurveType curve;
+
+    private CryptoProvider provider;
+    private byte[] clientPublicKey;
+    private byte[] serverPrivateKey;
+    private ECPublicKeyParameters signerPublicKey;
+    private byte[] compactSignature;
+    private byte[] hashedData;
+    private byte[] sessionKey;
+    private byte[] iv;
+    private byte[] encryptedVp;
+    private byte[] vp;
+
+    @Setup
+    public void setup() throws Exception {
+        provider = providerType.getProvider();
+
+        KeyPairInterface serverKeyPair = CryptoUtils.generateKeyPair(curve.toOmnioneDidKeyType());
+        KeyPairInterface clientKeyPair = CryptoUtils.generateKeyPair(curve.toOmnioneDidKeyType());
+        clientPublicKey = BaseCryptoUtil.compressPublicKey(clientKeyPair.getPublicKey().getEncoded(), curve);
+        serverPrivateKey = serverKeyPair.getPrivateKey().getEncoded();
+
+        vp = BenchmarkFixtures.resource("vp.json").getBytes(StandardCharsets.UTF_8);
+        hashedData = BaseCryptoUtil.sha256(vp);
+        compactSignature = SignatureUtils.generateCompactSignature((EcKeyPair) clientKeyPair, hashedData,
+                curve.toOmnioneEccCurveType());
+        ECDomainParameters domainParameters = BouncyCastleCryptoProvider.getDomainParameters(curve);
+        signerPublicKey = new ECPublicKeyParameters(domainParameters.getCurve().decodePoint(clientPublicKey), domainParameters);
+
+        sessionKey = BaseCryptoUtil.generateNonce(32);
+        iv = BaseCryptoUtil.generateNonce(16);
+        encryptedVp = CryptoUtils.encrypt(vp,
+                new CipherInfo(CIPHER.toOmnioneSymmetricCipherType(), PADDING.toOmnioneSymmetricPaddingType()),
+                sessionKey, iv);
+    }
+
+    @Benchmark
+    public KeyPairInterface generateKeyPair() throws Exception {
+        return provider.generateKeyPair(curve);
+    }
+
+    @Benchmark
+    public byte[] generateSharedSecret() throws Exception {
+        return provider.generateSharedSecret(clientPublicKey, serverPrivateKey, curve);
+    }
+
+    @Benchmark
+    public boolean verifySignature() throws Exception {
+        return provider.verifySignature(signerPublicKey, compactSignature, hashedData, curve);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws Exception {
+        return provider.decrypt(encryptedVp, sessionKey, iv, CIPHER, PADDING);
+    }
+
+    @Benchmark
+    public byte[] sha256() throws Exception {
+        return provider.sha256(vp);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.benchmark;
+
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.crypto.enums.MultiBaseType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of multibase encoding and decoding.
+ * The sizes cover a compressed public key, a compact signature and an encrypted VP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultibaseBenchmark {
+    @Param({"base58btc", "base64"})
+    private String encoding;
+
+    @Param({"33", "65", "4096"})
+    private int size;
+
+    private MultiBaseType multiBaseType;
+    private byte[] data;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        multiBaseType = MultiBaseType.valueOf(encoding);
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        encoded = BaseMultibaseUtil.encode(data, multiBaseType);
+    }
+
+    @Benchmark
+    public String encode() {
+        return BaseMultibaseUtil.encode(data, multiBaseType);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return BaseMultibaseUtil.decode(encoded);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.omnione.did.base.datamodel.enums.PresentMode;
+import org.omnione.did.base.property.VerifierProperty;
+import org.omnione.did.verifier.v1.dto.RequestOfferReqDto;
+import org.omnione.did.verifier.v1.dto.VerifyOfferResult;
+import org.omnione.did.verifier.v1.service.FileLoaderService;
+import org.omnione.did.verifier.v1.service.VpPolicySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of finding the VP policy of an offer request among many policies: the offer index of
+ * FileLoaderService against a scan over all policies, which is how offers were matched before the index.
+ * The policies are copies of a sample VP policy with distinct services, written to a temporary directory.
+ * Requests use mixed-case device and service names, as the lookup is case-insensitive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PolicyLookupBenchmark {
+    private static final int REQUEST_COUNT = 1024;
+
+    @Param({"10", "1000", "10000"})
+    private int policyCount;
+
+    private Path policyDirectory;
+    private FileLoaderService fileLoaderService;
+    private RequestOfferReqDto[] requests;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode template = (ObjectNode) objectMapper.readTree(BenchmarkFixtures.vpPolicy("vpPolicy(web-login).json").toFile());
+        policyDirectory = Files.createTempDirectory("vp-policies");
+        for (int i = 0; i < policyCount; i++) {
+            ObjectNode policy = template.deepCopy();
+            policy.put("policyId", "policy-" + i);
+            ((ObjectNode) policy.get("payload")).put("device", i % 2 == 0 ? "WEB" : "APP");
+            ((ObjectNode) policy.get("payload")).put("service", "service-" + i);
+            objectMapper.writeValue(policyDirectory.resolve("policy-" + i + ".json").toFile(), policy);
+        }
+
+        VerifierProperty verifierProperty = new VerifierProperty();
+        verifierProperty.setVerifierEndPoints(new ArrayList<>(List.of("http://127.0.0.1:8092/verifier/api/v1/request-verify")));
+        fileLoaderService = new FileLoaderService(objectMapper, verifierProperty);
+        Field samplePath = ReflectionUtils.findField(FileLoaderService.class, "samplePath");
+        ReflectionUtils.makeAccessible(samplePath);
+        ReflectionUtils.setField(samplePath, fileLoaderService, policyDirectory.toString());
+        fileLoaderService.loadPolicies();
+
+        Random random = new Random(42);
+        requests = new RequestOfferReqDto[REQUEST_COUNT];
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            int policy = random.nextInt(policyCount);
+            requests[i] = RequestOfferReqDto.builder()
+                    .device(policy % 2 == 0 ? "Web" : "app")
+                    .service("Service-" + policy)
+                    .mode(PresentMode.DIRECT)
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(policyDirectory);
+    }
+
+    @Benchmark
+    public VerifyOfferResult indexedLookup() {
+        return fileLoaderService.getPolicyByOfferData(nextRequest());
+    }
+
+    @Benchmark
+    public VpPolicySnapshot linearScan() {
+        RequestOfferReqDto request = nextRequest();
+        for (VpPolicySnapshot vpPolicy : fileLoaderService.getPolicies()) {
+            if (StringUtils.equalsIgnoreCase(vpPolicy.getDevice(), request.getDevice())
+                    && StringUtils.equalsIgnoreCase(vpPolicy.getService(), request.getService())
+                    && StringUtils.equalsIgnoreCase(String.valueOf(vpPolicy.getMode()), String.valueOf(request.getMode()))) {
+                return vpPolicy;
+            }
+        }
+        return null;
+    }
+
+    private RequestOfferReqDto nextRequest() {
+        return requests[next++ & (REQUEST_COUNT - 1)];
+    }
+}
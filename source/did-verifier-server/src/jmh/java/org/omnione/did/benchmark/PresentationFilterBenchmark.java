@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.benchmark;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.CredentialSubject;
+import org.omnione.did.data.model.vc.Issuer;
+import org.omnione.did.data.model.vc.VcProof;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.verifier.v1.service.PresentationFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of matching the credentials of a presentation against the filter of a VP policy: the compiled
+ * PresentationFilter against the list scans it replaced. The filter has as many credential schemas as the
+ * presentation has credentials, each requiring all claims of its credential from one of several allowed issuers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PresentationFilterBenchmark {
+    private static final int ISSUER_COUNT = 10;
+
+    @Param({"1", "4"})
+    private int credentialCount;
+
+    @Param({"10", "100"})
+    private int claimCount;
+
+    private Filter filter;
+    private PresentationFilter presentationFilter;
+    private List<VerifiableCredential> verifiableCredentials;
+
+    @Setup
+    public void setup() {
+        List<String> issuers = new ArrayList<>();
+        for (int i = 0; i < ISSUER_COUNT; i++) {
+            issuers.add("did:omn:issuer" + i);
+        }
+        List<CredentialSchema> credentialSchemas = new ArrayList<>();
+        verifiableCredentials = new ArrayList<>();
+        for (int c = 0; c < credentialCount; c++) {
+            List<String> requiredClaims = new ArrayList<>();
+            List<Claim> claims = new ArrayList<>();
+            for (int i = 0; i < claimCount; i++) {
+                String code = "org.opendid.v1.schema" + c + ".claim" + i;
+                requiredClaims.add(code);
+                Claim claim = new Claim();
+                claim.setCode(code);
+                claims.add(0, claim);
+            }
+
+            CredentialSchema credentialSchema = new CredentialSchema();
+            credentialSchema.setId("http://127.0.0.1:8091/schema/" + c);
+            credentialSchema.setType("OsdSchemaCredential");
+            credentialSchema.setAllowedIssuers(issuers);
+            credentialSchema.setRequiredClaims(requiredClaims);
+            credentialSchema.setPresentAll(false);
+            credentialSchemas.add(credentialSchema);
+
+            VerifiableCredential verifiableCredential = new VerifiableCredential();
+            CredentialSchema vcSchema = new CredentialSchema();
+            vcSchema.setId(credentialSchema.getId());
+            vcSchema.setType(credentialSchema.getType());
+            verifiableCredential.setCredentialSchema(vcSchema);
+            Issuer issuer = new Issuer();
+            issuer.setId(issuers.get(ISSUER_COUNT - 1));
+            verifiableCredential.setIssuer(issuer);
+            CredentialSubject credentialSubject = new CredentialSubject();
+            credentialSubject.setClaims(claims);
+            verifiableCredential.setCredentialSubject(credentialSubject);
+            verifiableCredential.setProof(new VcProof());
+            verifiableCredentials.add(0, verifiableCredential);
+        }
+        filter = new Filter();
+        filter.setCredentialSchemas(credentialSchemas);
+        presentationFilter = PresentationFilter.compile(filter);
+    }
+
+    @Benchmark
+    public List<VerifiableCredential> compiledFilter() throws CoreException {
+        presentationFilter.check(verifiableCredentials);
+        return verifiableCredentials;
+    }
+
+    @Benchmark
+    public List<VerifiableCredential> listScan() throws CoreException {
+        for (CredentialSchema credentialSchema : filter.getCredentialSchemas()) {
+            VerifiableCredential verifiableCredential = verifiableCredentials.stream()
+                    .filter(vc -> Objects.equals(vc.getCredentialSchema().getId(), credentialSchema.getId())
+                            && Objects.equals(vc.getCredentialSchema().getType(), credentialSchema.getType()))
+                    .findFirst()
+                    .orElseThrow(() -> new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_SCHEMA));
+            if (!credentialSchema.getAllowedIssuers().contains(verifiableCredential.getIssuer().getId())) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER);
+            }
+            List<Claim> claims = verifiableCredential.getCredentialSubject().getClaims();
+            if (!credentialSchema.getRequiredClaims().stream()
+                    .allMatch(code -> claims.stream().anyMatch(claim -> code.equals(claim.getCode())))) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_CONTAIN_CLAIM);
+            }
+        }
+        return verifiableCredentials;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.omnione.did.base.datamodel.data.VpPolicy;
+import org.omnione.did.common.util.JsonUtil;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the serialization done for every VP submission: sorting and serializing a verify profile
+ * for signing, and parsing the submitted VP. The profiles are the sample VP policies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    @Param({"vpPolicy(web-login).json", "vpPolicy(web-signup).json"})
+    private String policyFile;
+
+    private VpPolicy vpPolicy;
+    private String vpJson;
+
+    @Setup
+    public void setup() throws Exception {
+        vpPolicy = new ObjectMapper().readValue(BenchmarkFixtures.vpPolicy(policyFile).toFile(), VpPolicy.class);
+        vpJson = BenchmarkFixtures.resource("vp.json");
+    }
+
+    @Benchmark
+    public String serializeAndSortProfile() throws Exception {
+        return JsonUtil.serializeAndSort(vpPolicy.getProfile());
+    }
+
+    @Benchmark
+    public VerifiablePresentation verifiablePresentationFromJson() {
+        VerifiablePresentation verifiablePresentation = new VerifiablePresentation();
+        verifiablePresentation.fromJson(vpJson);
+        return verifiablePresentation;
+    }
+}
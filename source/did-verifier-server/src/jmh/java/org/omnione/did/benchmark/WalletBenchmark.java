@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.omnione.did.base.datamodel.data.VpPolicy;
+import org.omnione.did.base.property.WalletProperty;
+import org.omnione.did.base.util.BaseWalletUtil;
+import org.omnione.did.common.util.JsonUtil;
+import org.omnione.did.verifier.v1.service.FileWalletService;
+import org.omnione.did.wallet.enums.WalletEncryptType;
+import org.omnione.did.wallet.key.WalletManagerInterface;
+import org.omnione.did.wallet.key.data.CryptoKeyPairInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of signing with the file wallet, as done for every verify profile.
+ * A wallet with a freshly generated key is created in a temporary directory on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WalletBenchmark {
+    private static final String KEY_ID = "assert";
+    private static final String PASSWORD = "benchmark";
+
+    private Path walletDirectory;
+    private FileWalletService fileWalletService;
+    private String profileJson;
+
+    @Setup
+    public void setup() throws Exception {
+        walletDirectory = Files.createTempDirectory("did-verifier-benchmark");
+        String walletFile = walletDirectory.resolve("benchmark.wallet").toString();
+        WalletManagerInterface walletManager = BaseWalletUtil.getFileWalletManager();
+        walletManager.create(walletFile, PASSWORD.toCharArray(), WalletEncryptType.AES_256_CBC_PKCS5Padding);
+        walletManager.connect(walletFile, PASSWORD.toCharArray());
+        walletManager.generateRandomKey(KEY_ID, CryptoKeyPairInfo.KeyAlgorithmType.SECP256r1);
+        walletManager.disConnect();
+
+        WalletProperty walletProperty = new WalletProperty();
+        walletProperty.setFilePath(walletFile);
+        walletProperty.setPassword(PASSWORD);
+        fileWalletService = new FileWalletService(walletProperty);
+        fileWalletService.connectToWallet();
+
+        VpPolicy vpPolicy = new ObjectMapper().readValue(
+                BenchmarkFixtures.vpPolicy("vpPolicy(web-login).json").toFile(), VpPolicy.class);
+        profileJson = JsonUtil.serializeAndSort(vpPolicy.getProfile());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        fileWalletService.getWalletManager().disConnect();
+        try (var files = Files.walk(walletDirectory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] generateCompactSignature() {
+        return fileWalletService.generateCompactSignature(KEY_ID, profileJson);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.omnione.did.base.util.BaseBlockChainUtil;
+import org.omnione.did.base.util.ContractApiPool;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * The BlockChainConfig class provides configuration for the blockchain storage.
+ * This class provides the pool of ContractApi clients, which is closed with the application context.
+ */
+@Configuration
+@Profile("!repository")
+public class BlockChainConfig {
+    @Bean(destroyMethod = "close")
+    public ContractApiPool contractApiPool(MeterRegistry meterRegistry) {
+        return new ContractApiPool(BaseBlockChainUtil.loadProperties(), meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.crypto.CryptoProviderType;
+import org.omnione.did.base.property.CryptoProperty;
+import org.omnione.did.base.util.BaseCryptoUtil;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The CryptoConfig class provides configuration for cryptographic operations.
+ * This class selects the crypto provider of each operation of BaseCryptoUtil.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class CryptoConfig {
+    private final CryptoProperty cryptoProperty;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void configureCryptoProviders() {
+        CryptoProviderType keyGeneration = orDefault(cryptoProperty.getKeyGenerationProvider());
+        CryptoProviderType keyAgreement = orDefault(cryptoProperty.getKeyAgreementProvider());
+        CryptoProviderType signature = orDefault(cryptoProperty.getSignatureProvider());
+        CryptoProviderType decryption = orDefault(cryptoProperty.getDecryptionProvider());
+        CryptoProviderType digest = orDefault(cryptoProperty.getDigestProvider());
+
+        BaseCryptoUtil.setCryptoProviders(keyGeneration.getProvider(), keyAgreement.getProvider(),
+                signature.getProvider(), decryption.getProvider(), digest.getProvider());
+        log.info("Crypto providers: key generation {}, key agreement {}, signature {}, decryption {}, digest {}",
+                keyGeneration, keyAgreement, signature, decryption, digest);
+
+        Gauge.builder("crypto.public.key.cache.size", BaseCryptoUtil::getPublicKeyCacheSize)
+                .description("Number of decoded public keys kept for signature verification")
+                .register(meterRegistry);
+    }
+
+    private CryptoProviderType orDefault(CryptoProviderType providerType) {
+        return providerType != null ? providerType : cryptoProperty.getProvider();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.config;
+
+import org.omnione.did.base.property.DidResolutionProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The DidResolutionConfig class provides configuration for DID resolution.
+ * This class provides the executor on which the storage services look up several DID documents concurrently.
+ */
+@Configuration
+public class DidResolutionConfig {
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService didResolutionExecutor(DidResolutionProperty didResolutionProperty) {
+        return Executors.newFixedThreadPool(Math.max(1, didResolutionProperty.getThreads()),
+                new CustomizableThreadFactory("did-resolution-"));
+    }
+}
@@ -17,6 +17,11 @@
 package org.omnione.did.base.config;
 
 import feign.RequestInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +30,10 @@ import org.springframework.context.annotation.Configuration;
  * This class enables Feign clients for the specified base package, allowing for easy
  * communication with external services defined by Feign interfaces.
  * This class also provides a RequestInterceptor bean that adds a Content-Type header to all requests.
+ *
+ * The clients run on the pooled Apache HttpClient 5 client configured under "spring.cloud.openfeign".
+ * Per-client request latency is recorded by the Feign Micrometer capability, and this class publishes
+ * the connection pool usage so that pool saturation can be observed.
  */
 @Configuration
 @EnableFeignClients("org.omnione.did.verifier.v1.api")
@@ -36,4 +45,25 @@ public class OpenFeignConfig {
         };
     }
 
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManagerProvider) {
+        return registry -> {
+            if (!(connectionManagerProvider.getIfAvailable() instanceof PoolingHttpClientConnectionManager connectionManager)) {
+                return;
+            }
+            Gauge.builder("feign.http.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                    .description("Number of HTTP connections in use by Feign clients")
+                    .register(registry);
+            Gauge.builder("feign.http.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                    .description("Number of idle HTTP connections kept alive for Feign clients")
+                    .register(registry);
+            Gauge.builder("feign.http.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                    .description("Number of Feign requests waiting for an HTTP connection")
+                    .register(registry);
+            Gauge.builder("feign.http.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                    .description("Maximum number of HTTP connections for Feign clients")
+                    .register(registry);
+        };
+    }
+
 }
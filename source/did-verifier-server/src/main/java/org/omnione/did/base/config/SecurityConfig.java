@@ -18,29 +18,92 @@ package org.omnione.did.base.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.omnione.did.base.constants.UrlConstant;
+import org.omnione.did.base.property.AdminProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
  * The SecurityConfig class provides methods for configuring security settings.
  * This class configures the security settings for the application, such as CSRF, form login, HTTP basic authentication,
  * and custom authorization for specific endpoints.
+ * The administrative API requires HTTP basic authentication as the configured administrator.
  */
 @RequiredArgsConstructor
 @Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private final AdminProperty adminProperty;
+
     static {
     }
 
     /**
-     * Configures the security filter chain that applies to all HTTP requests.
+     * Configures the security filter chain that applies to the administrative API.
+     * Requests must authenticate with HTTP basic authentication as the administrator.
+     *
+     * @param httpSecurity the HttpSecurity object used to configure web-based security
+     * @return the configured SecurityFilterChain instance
+     * @throws Exception if an error occurs while configuring security
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain adminSecurityFilterChain(HttpSecurity httpSecurity)
+            throws Exception {
+
+        return httpSecurity
+                .securityMatcher(UrlConstant.Verifier.V1 + UrlConstant.Verifier.ADMIN)
+                .csrf(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(Customizer.withDefaults())
+                .authorizeHttpRequests(configurer -> configurer.anyRequest().hasRole("ADMIN"))
+                .build();
+    }
+
+    /**
+     * Provides the administrator account of the administrative API.
+     * No account exists while no administrator password is configured.
+     *
+     * @return the UserDetailsService holding the administrator account
+     */
+    @Bean
+    public UserDetailsService adminUserDetailsService() {
+        InMemoryUserDetailsManager userDetailsManager = new InMemoryUserDetailsManager();
+        if (StringUtils.isNotBlank(adminProperty.getPassword())) {
+            userDetailsManager.createUser(User.withUsername(adminProperty.getUsername())
+                    .password(adminProperty.getPassword())
+                    .roles("ADMIN")
+                    .build());
+        } else {
+            log.warn("No admin password is configured; the administrative API rejects all requests");
+        }
+        return userDetailsManager;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+
+    /**
+     * Configures the security filter chain that applies to all other HTTP requests.
      * This method disables CSRF protection, basic authentication, form login, and logout functionalities,
      * and it customizes authorization for specific endpoints.
      *
@@ -49,6 +112,7 @@ public class SecurityConfig {
      * @throws Exception if an error occurs while configuring security
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity)
             throws Exception {
 
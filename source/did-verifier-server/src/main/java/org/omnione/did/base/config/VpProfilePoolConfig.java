@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.config;
+
+import org.omnione.did.base.property.VpProfilePoolProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The VpProfilePoolConfig class provides configuration for the pool of pre-minted VP profiles.
+ * This class provides the executor on which VP profiles are minted and the pool is swept.
+ */
+@Configuration
+public class VpProfilePoolConfig {
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService vpProfileMintingExecutor(VpProfilePoolProperty vpProfilePoolProperty) {
+        return Executors.newScheduledThreadPool(Math.max(1, vpProfilePoolProperty.getThreads()),
+                new CustomizableThreadFactory("vp-profile-minting-"));
+    }
+}
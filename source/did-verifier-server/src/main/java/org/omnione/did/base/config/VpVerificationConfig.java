@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.config;
+
+import org.omnione.did.base.property.VpVerificationProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The VpVerificationConfig class provides configuration for Verifiable Presentation verification.
+ * This class provides the executor on which the credentials of a presentation are verified concurrently.
+ */
+@Configuration
+public class VpVerificationConfig {
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService vcVerificationExecutor(VpVerificationProperty vpVerificationProperty) {
+        return Executors.newFixedThreadPool(Math.max(1, vpVerificationProperty.getThreads()),
+                new CustomizableThreadFactory("vc-verification-"));
+    }
+}
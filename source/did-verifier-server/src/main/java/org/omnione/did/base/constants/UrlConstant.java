@@ -27,6 +27,8 @@ public class UrlConstant {
         public static final String REQUEST_VERIFY = "/request-verify";
         public static final String CONFIRM_VERIFY = "/confirm-verify";
         public static final String REQUEST_PROFILE = "/request-profile";
+        public static final String ADMIN = "/admin/**";
+        public static final String INVALIDATE_DID_CACHE = "/admin/did-cache/invalidate";
 
     }
 }
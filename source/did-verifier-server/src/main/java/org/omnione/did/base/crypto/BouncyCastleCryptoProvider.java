@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.crypto;
+
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.BufferedBlockCipher;
+import org.bouncycastle.crypto.DefaultBufferedBlockCipher;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.agreement.ECDHBasicAgreement;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.paddings.PKCS7Padding;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.jce.spec.ECPrivateKeySpec;
+import org.bouncycastle.jce.spec.ECPublicKeySpec;
+import org.bouncycastle.util.BigIntegers;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
+import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A crypto provider backed by the BouncyCastle lightweight API.
+ *
+ * Elliptic curve operations use BouncyCastle's curve-specific field arithmetic directly, and compact
+ * signatures are verified against the known public key instead of recovering it from the signature.
+ * Only generated key pairs go through the BouncyCastle JCA provider, to wrap them as JCA keys.
+ */
+public class BouncyCastleCryptoProvider implements CryptoProvider {
+    private static final int COMPACT_SIGNATURE_LENGTH = 65;
+    private static final Map<EccCurveType, ECDomainParameters> DOMAIN_PARAMETERS = new EnumMap<>(EccCurveType.class);
+    private static final Map<EccCurveType, ECNamedCurveParameterSpec> PARAMETER_SPECS = new EnumMap<>(EccCurveType.class);
+
+    static {
+        for (EccCurveType eccCurveType : EccCurveType.values()) {
+            String curveName = eccCurveType.toString().toLowerCase();
+            X9ECParameters params = CustomNamedCurves.getByName(curveName);
+            DOMAIN_PARAMETERS.put(eccCurveType,
+                    new ECDomainParameters(params.getCurve(), params.getG(), params.getN(), params.getH()));
+            PARAMETER_SPECS.put(eccCurveType, ECNamedCurveTable.getParameterSpec(curveName));
+        }
+    }
+
+    private final BouncyCastleProvider provider = new BouncyCastleProvider();
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * Return the domain parameters of a curve, backed by BouncyCastle's curve-specific implementation.
+     *
+     * @param eccCurveType The curve.
+     * @return The domain parameters.
+     */
+    public static ECDomainParameters getDomainParameters(EccCurveType eccCurveType) {
+        return DOMAIN_PARAMETERS.get(eccCurveType);
+    }
+
+    @Override
+    public KeyPairInterface generateKeyPair(EccCurveType eccCurveType) throws GeneralSecurityException {
+        ECKeyPairGenerator generator = new ECKeyPairGenerator();
+        generator.init(new ECKeyGenerationParameters(DOMAIN_PARAMETERS.get(eccCurveType), secureRandom));
+        AsymmetricCipherKeyPair keyPair = generator.generateKeyPair();
+
+        ECNamedCurveParameterSpec spec = PARAMETER_SPECS.get(eccCurveType);
+        KeyFactory keyFactory = KeyFactory.getInstance("EC", provider);
+        EcKeyPair ecKeyPair = new EcKeyPair(
+                keyFactory.generatePublic(new ECPublicKeySpec(((ECPublicKeyParameters) keyPair.getPublic()).getQ(), spec)),
+                keyFactory.generatePrivate(new ECPrivateKeySpec(((ECPrivateKeyParameters) keyPair.getPrivate()).getD(), spec)));
+        ecKeyPair.setECType(eccCurveType.toOmnioneEccCurveType());
+        return ecKeyPair;
+    }
+
+    @Override
+    public byte[] generateSharedSecret(byte[] compressedPublicKey, byte[] privateKey, EccCurveType eccCurveType) throws GeneralSecurityException {
+        ECDomainParameters domainParameters = DOMAIN_PARAMETERS.get(eccCurveType);
+        try {
+            ECPublicKeyParameters publicKeyParameters =
+                    new ECPublicKeyParameters(domainParameters.getCurve().decodePoint(compressedPublicKey), domainParameters);
+            ECPrivateKeyParameters privateKeyParameters =
+                    new ECPrivateKeyParameters(decodePrivateKey(privateKey), domainParameters);
+
+            ECDHBasicAgreement agreement = new ECDHBasicAgreement();
+            agreement.init(privateKeyParameters);
+            return BigIntegers.asUnsignedByteArray(agreement.calculateAgreement(publicKeyParameters));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean verifySignature(ECPublicKeyParameters publicKey, byte[] compactSignature, byte[] hashedData, EccCurveType eccCurveType) {
+        if (compactSignature.length != COMPACT_SIGNATURE_LENGTH) {
+            return false;
+        }
+
+        // Skip the recovery byte, the public key is already known
+        BigInteger r = new BigInteger(1, Arrays.copyOfRange(compactSignature, 1, 33));
+        BigInteger s = new BigInteger(1, Arrays.copyOfRange(compactSignature, 33, 65));
+
+        ECDSASigner ecdsaSigner = new ECDSASigner();
+        ecdsaSigner.init(false, publicKey);
+        return ecdsaSigner.verifySignature(hashedData, r, s);
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, byte[] key, byte[] iv, SymmetricCipherType symmetricCipherType, SymmetricPaddingType symmetricPaddingType) throws GeneralSecurityException {
+        boolean cbc = symmetricCipherType == SymmetricCipherType.AES_128_CBC || symmetricCipherType == SymmetricCipherType.AES_256_CBC;
+        BufferedBlockCipher cipher = symmetricPaddingType == SymmetricPaddingType.PKCS5
+                ? new PaddedBufferedBlockCipher(cbc ? CBCBlockCipher.newInstance(AESEngine.newInstance()) : AESEngine.newInstance(), new PKCS7Padding())
+                : new DefaultBufferedBlockCipher(cbc ? CBCBlockCipher.newInstance(AESEngine.newInstance()) : AESEngine.newInstance());
+        try {
+            KeyParameter keyParameter = new KeyParameter(key);
+            cipher.init(false, cbc ? new ParametersWithIV(keyParameter, iv) : keyParameter);
+
+            byte[] output = new byte[cipher.getOutputSize(encryptedData.length)];
+            int length = cipher.processBytes(encryptedData, 0, encryptedData.length, output, 0);
+            length += cipher.doFinal(output, length);
+            return length == output.length ? output : Arrays.copyOf(output, length);
+        } catch (InvalidCipherTextException | RuntimeException e) {
+            throw new GeneralSecurityException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] sha256(byte[] data) {
+        SHA256Digest digest = new SHA256Digest();
+        digest.update(data, 0, data.length);
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.doFinal(hash, 0);
+        return hash;
+    }
+
+    private static BigInteger decodePrivateKey(byte[] privateKey) throws InvalidKeyException {
+        try {
+            PrivateKeyInfo privateKeyInfo = PrivateKeyInfo.getInstance(privateKey);
+            return org.bouncycastle.asn1.sec.ECPrivateKey.getInstance(privateKeyInfo.parsePrivateKey()).getKey();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidKeyException("Invalid PKCS#8 EC private key", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.crypto;
+
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
+import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+
+/**
+ * A backend for the cryptographic operations of {@link org.omnione.did.base.util.BaseCryptoUtil}.
+ *
+ * All providers produce the same results for the same inputs, so the provider of each operation can be
+ * chosen by configuration without affecting peers: key pairs are JCA keys with the standard X.509 and PKCS#8
+ * encodings, shared secrets are the x-coordinate of the shared point as an unsigned big-endian number without
+ * leading zero bytes (the encoding of the SDK), and signatures are verified against data that is already hashed.
+ */
+public interface CryptoProvider {
+    /**
+     * Generate an EC key pair.
+     *
+     * @param eccCurveType The curve of the key pair.
+     * @return The generated key pair.
+     * @throws GeneralSecurityException if the key pair cannot be generated.
+     */
+    KeyPairInterface generateKeyPair(EccCurveType eccCurveType) throws GeneralSecurityException;
+
+    /**
+     * Generate an ECDH shared secret.
+     *
+     * @param compressedPublicKey The compressed public key of the peer.
+     * @param privateKey The PKCS#8 encoded private key.
+     * @param eccCurveType The curve of both keys.
+     * @return The shared secret.
+     * @throws GeneralSecurityException if the keys are invalid.
+     */
+    byte[] generateSharedSecret(byte[] compressedPublicKey, byte[] privateKey, EccCurveType eccCurveType) throws GeneralSecurityException;
+
+    /**
+     * Verify a compact signature.
+     *
+     * @param publicKey The decoded public key of the signer.
+     * @param compactSignature The 65-byte compact signature.
+     * @param hashedData The hashed data that was signed.
+     * @param eccCurveType The curve of the public key.
+     * @return Whether the signature is valid.
+     * @throws GeneralSecurityException if the signature cannot be verified.
+     */
+    boolean verifySignature(ECPublicKeyParameters publicKey, byte[] compactSignature, byte[] hashedData, EccCurveType eccCurveType) throws GeneralSecurityException;
+
+    /**
+     * Whether this provider verifies signatures against the compressed public key rather than the decoded point.
+     * Such a provider is called with {@link #verifySignature(byte[], byte[], byte[], EccCurveType)}, so the key
+     * is not decompressed or precomputed for it.
+     *
+     * @return Whether signatures are verified against the compressed public key.
+     */
+    default boolean verifiesCompressedPublicKey() {
+        return false;
+    }
+
+    /**
+     * Verify a compact signature with a compressed public key.
+     * By default the key is decoded and verified with {@link #verifySignature(ECPublicKeyParameters, byte[], byte[], EccCurveType)}.
+     *
+     * @param compressedPublicKey The compressed public key of the signer.
+     * @param compactSignature The 65-byte compact signature.
+     * @param hashedData The hashed data that was signed.
+     * @param eccCurveType The curve of the public key.
+     * @return Whether the signature is valid.
+     * @throws GeneralSecurityException if the public key is invalid or the signature cannot be verified.
+     */
+    default boolean verifySignature(byte[] compressedPublicKey, byte[] compactSignature, byte[] hashedData, EccCurveType eccCurveType) throws GeneralSecurityException {
+        ECDomainParameters domainParameters = BouncyCastleCryptoProvider.getDomainParameters(eccCurveType);
+        ECPublicKeyParameters publicKey;
+        try {
+            publicKey = new ECPublicKeyParameters(domainParameters.getCurve().decodePoint(compressedPublicKey), domainParameters);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+        return verifySignature(publicKey, compactSignature, hashedData, eccCurveType);
+    }
+
+    /**
+     * Decrypt AES encrypted data.
+     *
+     * @param encryptedData The data to decrypt.
+     * @param key The key to decrypt with.
+     * @param iv The initialization vector, ignored in ECB mode.
+     * @param symmetricCipherType The cipher the data was encrypted with.
+     * @param symmetricPaddingType The padding of the data.
+     * @return The decrypted data.
+     * @throws GeneralSecurityException if the data cannot be decrypted.
+     */
+    byte[] decrypt(byte[] encryptedData, byte[] key, byte[] iv, SymmetricCipherType symmetricCipherType, SymmetricPaddingType symmetricPaddingType) throws GeneralSecurityException;
+
+    /**
+     * Compute the SHA-256 digest of data.
+     *
+     * @param data The data to hash.
+     * @return The digest.
+     * @throws GeneralSecurityException if the digest cannot be computed.
+     */
+    byte[] sha256(byte[] data) throws GeneralSecurityException;
+}
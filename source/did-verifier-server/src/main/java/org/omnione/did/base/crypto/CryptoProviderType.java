@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.crypto;
+
+/**
+ * Enumeration of the available crypto providers.
+ */
+public enum CryptoProviderType {
+    SDK,
+    BOUNCY_CASTLE,
+    JCA;
+
+    /**
+     * Return the shared instance of this provider.
+     *
+     * @return The crypto provider.
+     */
+    public CryptoProvider getProvider() {
+        return switch (this) {
+            case SDK -> Providers.SDK;
+            case BOUNCY_CASTLE -> Providers.BOUNCY_CASTLE;
+            case JCA -> Providers.JCA;
+        };
+    }
+
+    private static class Providers {
+        private static final CryptoProvider SDK = new SdkCryptoProvider();
+        private static final CryptoProvider BOUNCY_CASTLE = new BouncyCastleCryptoProvider();
+        private static final CryptoProvider JCA = new JcaCryptoProvider(BOUNCY_CASTLE);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.crypto;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
+import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * A crypto provider backed by the JDK's built-in JCA providers (SunEC, SunJCE and SUN).
+ *
+ * The JDK no longer implements secp256k1, so elliptic curve operations on that curve are delegated
+ * to a fallback provider. Compact signatures are verified in the IEEE P1363 format, which is the compact
+ * signature without its recovery byte.
+ */
+public class JcaCryptoProvider implements CryptoProvider {
+    private static final int COMPACT_SIGNATURE_LENGTH = 65;
+
+    private final CryptoProvider fallback;
+    private final Provider ecProvider = requireProvider("SunEC");
+    private final Provider cipherProvider = requireProvider("SunJCE");
+    private final Provider digestProvider = requireProvider("SUN");
+    private final ECParameterSpec secp256r1;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public JcaCryptoProvider(CryptoProvider fallback) {
+        this.fallback = fallback;
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC", ecProvider);
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            this.secp256r1 = parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("secp256r1 is not supported by " + ecProvider.getName(), e);
+        }
+    }
+
+    @Override
+    public KeyPairInterface generateKeyPair(EccCurveType eccCurveType) throws GeneralSecurityException {
+        if (eccCurveType != EccCurveType.SECP_256_R1) {
+            return fallback.generateKeyPair(eccCurveType);
+        }
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", ecProvider);
+        generator.initialize(secp256r1, secureRandom);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        EcKeyPair ecKeyPair = new EcKeyPair(keyPair.getPublic(), keyPair.getPrivate());
+        ecKeyPair.setECType(eccCurveType.toOmnioneEccCurveType());
+        return ecKeyPair;
+    }
+
+    @Override
+    public byte[] generateSharedSecret(byte[] compressedPublicKey, byte[] privateKey, EccCurveType eccCurveType) throws GeneralSecurityException {
+        if (eccCurveType != EccCurveType.SECP_256_R1) {
+            return fallback.generateSharedSecret(compressedPublicKey, privateKey, eccCurveType);
+        }
+        ECPoint point;
+        try {
+            point = BouncyCastleCryptoProvider.getDomainParameters(eccCurveType).getCurve().decodePoint(compressedPublicKey);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+        KeyFactory keyFactory = KeyFactory.getInstance("EC", ecProvider);
+        PrivateKey ecPrivateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKey));
+
+        KeyAgreement keyAgreement = KeyAgreement.getInstance("ECDH", ecProvider);
+        keyAgreement.init(ecPrivateKey);
+        keyAgreement.doPhase(toPublicKey(keyFactory, point), true);
+        // The JDK returns the fixed-length x-coordinate, the SDK drops its leading zero bytes
+        return BigIntegers.asUnsignedByteArray(new BigInteger(1, keyAgreement.generateSecret()));
+    }
+
+    @Override
+    public boolean verifySignature(ECPublicKeyParameters publicKey, byte[] compactSignature, byte[] hashedData, EccCurveType eccCurveType) throws GeneralSecurityException {
+        if (eccCurveType != EccCurveType.SECP_256_R1) {
+            return fallback.verifySignature(publicKey, compactSignature, hashedData, eccCurveType);
+        }
+        if (compactSignature.length != COMPACT_SIGNATURE_LENGTH) {
+            return false;
+        }
+        Signature signature = Signature.getInstance("NONEwithECDSAinP1363Format", ecProvider);
+        signature.initVerify(toPublicKey(KeyFactory.getInstance("EC", ecProvider), publicKey.getQ()));
+        signature.update(hashedData);
+        // Skip the recovery byte, the public key is already known
+        return signature.verify(Arrays.copyOfRange(compactSignature, 1, COMPACT_SIGNATURE_LENGTH));
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, byte[] key, byte[] iv, SymmetricCipherType symmetricCipherType, SymmetricPaddingType symmetricPaddingType) throws GeneralSecurityException {
+        boolean cbc = symmetricCipherType == SymmetricCipherType.AES_128_CBC || symmetricCipherType == SymmetricCipherType.AES_256_CBC;
+        String padding = symmetricPaddingType == SymmetricPaddingType.PKCS5 ? "PKCS5Padding" : "NoPadding";
+        Cipher cipher = Cipher.getInstance("AES/" + (cbc ? "CBC" : "ECB") + "/" + padding, cipherProvider);
+        SecretKeySpec secretKey = new SecretKeySpec(key, "AES");
+        if (cbc) {
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        } else {
+            cipher.init(Cipher.DECRYPT_MODE, secretKey);
+        }
+        return cipher.doFinal(encryptedData);
+    }
+
+    @Override
+    public byte[] sha256(byte[] data) throws GeneralSecurityException {
+        return MessageDigest.getInstance("SHA-256", digestProvider).digest(data);
+    }
+
+    private PublicKey toPublicKey(KeyFactory keyFactory, ECPoint point) throws GeneralSecurityException {
+        ECPoint normalized = point.normalize();
+        java.security.spec.ECPoint w = new java.security.spec.ECPoint(
+                normalized.getAffineXCoord().toBigInteger(), normalized.getAffineYCoord().toBigInteger());
+        return keyFactory.generatePublic(new ECPublicKeySpec(w, secp256r1));
+    }
+
+    private static Provider requireProvider(String name) {
+        Provider provider = Security.getProvider(name);
+        if (provider == null) {
+            throw new IllegalStateException("JCA provider " + name + " is not available");
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.crypto;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
+import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
+import org.omnione.did.crypto.engines.CipherInfo;
+import org.omnione.did.crypto.enums.DigestType;
+import org.omnione.did.crypto.exception.CryptoException;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+import org.omnione.did.crypto.util.CryptoUtils;
+import org.omnione.did.crypto.util.DigestUtils;
+import org.omnione.did.crypto.util.SignatureUtils;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * A crypto provider backed by the did-crypto-sdk-server.
+ *
+ * Compact signatures are verified by recovering the public key from the signature and comparing it to the
+ * signer's compressed key, as the SDK does, so public keys are passed to it without decoding.
+ */
+public class SdkCryptoProvider implements CryptoProvider {
+    @Override
+    public KeyPairInterface generateKeyPair(EccCurveType eccCurveType) throws GeneralSecurityException {
+        try {
+            return CryptoUtils.generateKeyPair(eccCurveType.toOmnioneDidKeyType());
+        } catch (CryptoException e) {
+            throw new GeneralSecurityException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] generateSharedSecret(byte[] compressedPublicKey, byte[] privateKey, EccCurveType eccCurveType) throws GeneralSecurityException {
+        try {
+            return CryptoUtils.generateSharedSecret(compressedPublicKey, privateKey, eccCurveType.toOmnioneEccCurveType());
+        } catch (CryptoException e) {
+            throw new GeneralSecurityException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean verifySignature(ECPublicKeyParameters publicKey, byte[] compactSignature, byte[] hashedData, EccCurveType eccCurveType) {
+        return verifySignature(publicKey.getQ().getEncoded(true), compactSignature, hashedData, eccCurveType);
+    }
+
+    @Override
+    public boolean verifiesCompressedPublicKey() {
+        return true;
+    }
+
+    @Override
+    public boolean verifySignature(byte[] compressedPublicKey, byte[] compactSignature, byte[] hashedData, EccCurveType eccCurveType) {
+        try {
+            SignatureUtils.verifyCompactSignWithCompressedKey(compressedPublicKey, hashedData,
+                    compactSignature, eccCurveType.toOmnioneEccCurveType());
+            return true;
+        } catch (CryptoException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] decrypt(byte[] encryptedData, byte[] key, byte[] iv, SymmetricCipherType symmetricCipherType, SymmetricPaddingType symmetricPaddingType) throws GeneralSecurityException {
+        try {
+            CipherInfo cipherInfo = new CipherInfo(symmetricCipherType.toOmnioneSymmetricCipherType(), symmetricPaddingType.toOmnioneSymmetricPaddingType());
+            return CryptoUtils.decrypt(encryptedData, cipherInfo, key, iv);
+        } catch (CryptoException e) {
+            throw new GeneralSecurityException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] sha256(byte[] data) throws GeneralSecurityException {
+        try {
+            return DigestUtils.getDigest(data, DigestType.SHA256);
+        } catch (CryptoException e) {
+            throw new GeneralSecurityException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.datamodel.data;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+/**
+ * Represents the key material of a verification method, ready for signature verification.
+ * Holds the verification method as resolved from the DID document, the decoded compressed
+ * public key and the decompressed public key point, so none of them has to be derived again
+ * for every signature. The point is null when the signature provider verifies compressed keys.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeyMaterial {
+    private final String keyUrl;
+    private final VerificationMethod verificationMethod;
+    private final EccCurveType eccCurveType;
+    private final byte[] compressedPublicKey;
+    private final ECPublicKeyParameters publicKey;
+}
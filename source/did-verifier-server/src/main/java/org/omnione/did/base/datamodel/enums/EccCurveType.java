@@ -58,6 +58,23 @@ public enum EccCurveType {
         throw new OpenDidException(ErrorCode.INVALID_ECC_CURVE_TYPE);
     }
 
+    /**
+     * Converts the type of a verification method to the corresponding EccCurveType.
+     *
+     * @param keyType The verification method type (e.g., Secp256r1VerificationKey2018).
+     * @return The corresponding EccCurveType.
+     * @throws OpenDidException if the key type is not an ECC key type.
+     */
+    public static EccCurveType fromVerificationKeyType(String keyType) {
+        DidKeyType didKeyType = DidKeyType.fromString(keyType);
+        if (didKeyType == DidKeyType.SECP256K1_VERIFICATION_KEY_2018) {
+            return SECP_256_K1;
+        } else if (didKeyType == DidKeyType.SECP256R1_VERIFICATION_KEY_2018) {
+            return SECP_256_R1;
+        }
+        throw new OpenDidException(ErrorCode.INVALID_ECC_CURVE_TYPE);
+    }
+
     /**
      * Converts this EccCurveType to the corresponding Omnione EccCurveType.
      *
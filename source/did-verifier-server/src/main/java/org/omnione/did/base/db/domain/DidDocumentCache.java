@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Entity class representing a DID Document shared between verifier nodes.
+ * This class stores one version of a DID Document as fetched from the storage service,
+ * along with the time it was fetched and the time it was last confirmed to be the latest version of its DID.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "did_document_cache")
+public class DidDocumentCache extends BaseEntity implements Serializable {
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "did", nullable = false, length = 200)
+    private String did;
+    @Column(name = "version_id", nullable = false, length = 50)
+    private String versionId;
+    @Column(name = "document", nullable = false)
+    private String document;
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+    @Column(name = "latest_at")
+    private Instant latestAt;
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.db.repository;
+
+import org.omnione.did.base.db.domain.DidDocumentCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository interface for DidDocumentCache entity operations.
+ * Provides CRUD operations for DidDocumentCache entities and custom query methods.
+ *
+ */
+@Repository
+public interface DidDocumentCacheRepository extends JpaRepository<DidDocumentCache, Long> {
+
+    /**
+     * Finds a DID Document by its DID and version ID.
+     *
+     * @param did The DID.
+     * @param versionId The version ID of the DID Document.
+     * @return An Optional containing the DidDocumentCache entity if found, or an empty Optional if not found.
+     */
+    Optional<DidDocumentCache> findByDidAndVersionId(String did, String versionId);
+
+    /**
+     * Finds the DID Document most recently confirmed as the latest version of its DID.
+     *
+     * @param did The DID.
+     * @return An Optional containing the DidDocumentCache entity if found, or an empty Optional if not found.
+     */
+    Optional<DidDocumentCache> findFirstByDidAndLatestAtIsNotNullOrderByLatestAtDesc(String did);
+
+    /**
+     * Clears the latest-version confirmation of all stored versions of a DID.
+     *
+     * @param did The DID.
+     * @return The number of updated records.
+     */
+    @Modifying
+    @Query("update DidDocumentCache d set d.latestAt = null where d.did = :did")
+    int clearLatestAtByDid(@Param("did") String did);
+
+    /**
+     * Deletes the DID Documents that were fetched before the cutoff and not confirmed as the latest version since.
+     *
+     * @param cutoff The time before which records are deleted.
+     * @return The number of deleted records.
+     */
+    @Modifying
+    @Query("delete from DidDocumentCache d where d.fetchedAt < :cutoff and (d.latestAt is null or d.latestAt < :cutoff)")
+    int deleteStaleBefore(@Param("cutoff") Instant cutoff);
+}
@@ -75,6 +75,9 @@ public enum ErrorCode {
     // DID Related Errors (600-699)
     DID_DOCUMENT_RETRIEVAL_FAILED("SSRVVRF00600", "Failed to retrieve DID Document.", 500),
     FAILED_TO_FIND_DID_DOC("SSRVVRF00601", "Failed to find DID document.", 500),
+    VERIFICATION_METHOD_NOT_FOUND("SSRVVRF00602", "Verification method is not found in DID document.", 400),
+    DID_STORAGE_UNAVAILABLE("SSRVVRF00603", "Failed to reach the DID document storage.", 500),
+    DID_CACHE_INVALIDATION_FAILED("SSRVVRF00604", "Failed to publish the DID document cache invalidation.", 500),
 
     // E2E Related Errors (700-799)
     E2E_NOT_FOUND("SSRVVRF00700", "E2E is not found.", 400),
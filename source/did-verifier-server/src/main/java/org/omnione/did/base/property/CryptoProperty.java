@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.base.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.omnione.did.base.crypto.CryptoProviderType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties class for the crypto providers.
+ * This class maps configuration properties with the prefix "crypto" to its fields.
+ * Each operation uses its own provider if one is set, and the default provider otherwise.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "crypto")
+public class CryptoProperty {
+    private CryptoProviderType provider = CryptoProviderType.SDK;
+    private CryptoProviderType keyGenerationProvider;
+    private CryptoProviderType keyAgreementProvider;
+    private CryptoProviderType signatureProvider;
+    private CryptoProviderType decryptionProvider;
+    private CryptoProviderType digestProvider;
+}
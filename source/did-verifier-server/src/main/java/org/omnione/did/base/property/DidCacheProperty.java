@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties class for the DID Document cache.
+ * This class maps configuration properties with the prefix "did-cache" to its fields.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "did-cache")
+public class DidCacheProperty {
+    private int maxSize = 10000;
+    private Duration ttl = Duration.ofHours(1);
+    private Duration cleanupInterval = Duration.ofMinutes(5);
+    private RefreshMode refreshMode = RefreshMode.SYNC;
+    private Duration maxStaleness = Duration.ofHours(24);
+    private Storage storage = Storage.HEAP;
+    private DataSize offHeapCapacity = DataSize.ofMegabytes(256);
+    private DataSize offHeapBlockSize = DataSize.ofBytes(512);
+    private int refreshThreads = 4;
+    private int maxPendingRefreshes = 1000;
+    private Duration refreshJitter = Duration.ofSeconds(30);
+    private Duration refreshBackoff = Duration.ofSeconds(30);
+    private Duration maxRefreshBackoff = Duration.ofMinutes(10);
+    private boolean snapshotEnabled = true;
+    private String snapshotPath = "cache/did-doc-cache.snapshot";
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+    private boolean sharedCacheEnabled = true;
+    private boolean prewarmEnabled = true;
+    private Duration prewarmTimeout = Duration.ofSeconds(30);
+    private boolean invalidationEnabled = true;
+    private String invalidationChannel = "did_cache_invalidation";
+    private Duration invalidationPollInterval = Duration.ofSeconds(1);
+    private Duration invalidationReconnectInterval = Duration.ofSeconds(5);
+    private Duration negativeTtl = Duration.ofSeconds(30);
+    private int negativeMaxSize = 10000;
+    private int negativeMetricsSize = 20;
+
+    /**
+     * How an expired DID Document is refreshed.
+     * SYNC fetches the document on the request thread.
+     * STALE_WHILE_REVALIDATE serves the expired document while it is refreshed in the background,
+     * as long as it is not older than the time-to-live plus the maximum staleness.
+     */
+    public enum RefreshMode {
+        SYNC,
+        STALE_WHILE_REVALIDATE
+    }
+
+    /**
+     * Where cached DID Documents are kept.
+     * HEAP keeps the document objects on the Java heap.
+     * OFF_HEAP keeps them serialized in direct memory of the configured capacity and deserializes them on every hit.
+     */
+    public enum Storage {
+        HEAP,
+        OFF_HEAP
+    }
+}
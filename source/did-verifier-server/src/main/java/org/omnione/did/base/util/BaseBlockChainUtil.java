@@ -16,21 +16,27 @@
 
 package org.omnione.did.base.util;
 
+import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.ContractApi;
 import org.omnione.did.ContractFactory;
-import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
-import org.omnione.did.data.model.did.DidDocAndStatus;
-import org.omnione.exception.BlockChainException;
+import org.omnione.did.fabric.FabricContractApi;
+import org.omnione.sender.fabric.FabricServerInformation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.Properties;
 
 /**
  * This class provides utility methods for interacting with the blockchain.
- * It provides methods for registering and updating DID documents, as well as for registering and updating verifiable credentials (VCs).
+ * It provides methods for creating and closing ContractApi clients and for loading the blockchain properties.
+ * The clients are pooled by {@link ContractApiPool}.
  */
+@Slf4j
 public class BaseBlockChainUtil {
 
-    private static ContractApi contractApiInstance = getContractApiInstance();
-
+    private static final String BLOCKCHAIN_PROPERTIES = "properties/blockchain.properties";
 
     /**
      * Initializes the blockchain.
@@ -39,41 +45,44 @@ public class BaseBlockChainUtil {
      * @throws OpenDidException if the blockchain initialization fails.
      */
     public static ContractApi initBlockChain() {
-        return ContractFactory.FABRIC.create("properties/blockchain.properties");
+        return ContractFactory.FABRIC.create(BLOCKCHAIN_PROPERTIES);
     }
 
     /**
-     * Gets the ContractApi instance.
+     * Closes the network connections of a ContractApi client.
+     * FabricContractApi keeps its gateway pool in a private field and does not expose a close method,
+     * so the pool is reached by reflection.
      *
-     * @return The ContractApi instance.
+     * @param contractApi The ContractApi client.
      */
-    public static ContractApi getContractApiInstance() {
-        if (contractApiInstance == null) {
-            synchronized (BaseBlockChainUtil.class) {
-                if (contractApiInstance == null) {
-                    contractApiInstance = initBlockChain();
-                }
-            }
+    public static void closeContractApi(ContractApi contractApi) {
+        if (!(contractApi instanceof FabricContractApi)) {
+            return;
+        }
+        try {
+            Field field = FabricContractApi.class.getDeclaredField("serverInformation");
+            field.setAccessible(true);
+            ((FabricServerInformation) field.get(contractApi)).closePool();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.error("Failed to close a ContractApi client: " + e.getMessage());
         }
-        return contractApiInstance;
     }
 
-
     /**
-     * Find DID Document
+     * Loads the blockchain properties.
      *
-     * @param didKeyUrl The Decentralized Identifier (DID) to look up.
-     * @return DidDocAndStatus containing the DID document and its status.
-     * @throws OpenDidException if the DID is invalid or not found.
+     * @return The blockchain properties, or empty properties if they cannot be read.
      */
-    public static DidDocAndStatus findDidDocument(String didKeyUrl) {
-        try {
-            ContractApi contractApi = getContractApiInstance();
-            return (DidDocAndStatus) contractApi.getDidDoc(didKeyUrl);
-        } catch (BlockChainException e) {
-            System.out.println("Failed to get DID Document: " + e.getMessage());
-            throw new OpenDidException(ErrorCode.BLOCKCHAIN_GET_DID_DOC_FAILED);
+    public static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream inputStream = BaseBlockChainUtil.class.getClassLoader().getResourceAsStream(BLOCKCHAIN_PROPERTIES)) {
+            if (inputStream != null) {
+                properties.load(inputStream);
+            }
+        } catch (IOException e) {
+            log.error("Failed to load blockchain properties: " + e.getMessage());
         }
+        return properties;
     }
 
 }
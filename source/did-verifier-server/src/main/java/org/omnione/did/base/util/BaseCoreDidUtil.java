@@ -22,6 +22,8 @@ import org.omnione.did.core.manager.DidManager;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.VerificationMethod;
 
+import java.util.List;
+
 /**
  * Utility class for core DID operations.
  * Provides methods for parsing DID documents and getting verification methods.
@@ -58,14 +60,24 @@ public class BaseCoreDidUtil {
 
     /**
      * Get verification method from DID document
+     * The verification methods of the document are searched directly,
+     * without serializing and re-parsing the document.
      *
      * @param didDocument DID document
      * @param keyId Key ID
-     * @return Verification method
+     * @return Verification method, or null if the document has no key with the given ID
      */
     public static VerificationMethod getVerificationMethod(DidDocument didDocument, String keyId) {
-        DidManager didManager = parseDidDoc(didDocument);
-        return didManager.getVerificationMethodByKeyId(keyId);
+        List<VerificationMethod> verificationMethods = didDocument.getVerificationMethod();
+        if (verificationMethods == null) {
+            return null;
+        }
+        for (VerificationMethod verificationMethod : verificationMethods) {
+            if (keyId.equals(verificationMethod.getId())) {
+                return verificationMethod;
+            }
+        }
+        return null;
     }
 
 }
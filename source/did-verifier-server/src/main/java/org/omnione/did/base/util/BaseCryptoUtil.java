@@ -18,6 +18,11 @@ package org.omnione.did.base.util;
 
 
 import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.omnione.did.base.crypto.BouncyCastleCryptoProvider;
+import org.omnione.did.base.crypto.CryptoProvider;
+import org.omnione.did.base.crypto.CryptoProviderType;
+import org.omnione.did.base.datamodel.data.KeyMaterial;
 import org.omnione.did.base.datamodel.enums.EccCurveType;
 import org.omnione.did.base.datamodel.enums.SymmetricCipherType;
 import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
@@ -25,29 +30,68 @@ import org.omnione.did.base.datamodel.enums.SymmetricPaddingType;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.common.util.DateTimeUtil;
-import org.omnione.did.crypto.engines.CipherInfo;
 
 
 import org.omnione.did.crypto.exception.CryptoException;
 import org.omnione.did.crypto.keypair.KeyPairInterface;
 import org.omnione.did.crypto.util.CryptoUtils;
 import org.omnione.did.crypto.util.DigestUtils;
-import org.omnione.did.crypto.util.SignatureUtils;
 import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.did.VerificationMethod;
 import org.omnione.did.data.model.enums.did.ProofPurpose;
 import org.omnione.did.data.model.enums.did.ProofType;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
 import java.util.Arrays;
 
 /**
  * The BaseCryptoUtil class provides utility methods for cryptographic operations such as key pair generation, nonce generation, shared secret generation, encryption, and decryption.
  * It is designed to facilitate secure communication and data protection in various applications, ensuring compatibility and ease of use across different systems and protocols.
+ * Key pair generation, key agreement, signature verification, decryption and SHA-256 hashing are delegated to
+ * crypto providers that are selected per operation by CryptoConfig.
  *
  */
 @Slf4j
 public class BaseCryptoUtil {
 
+    private static final int PUBLIC_KEY_CACHE_SIZE = 1024;
+    private static final int HOT_KEY_THRESHOLD = 4;
+    private static final int HOT_KEY_WINDOW_WIDTH = 8;
+    private static final PublicKeyCache PUBLIC_KEY_CACHE =
+            new PublicKeyCache(PUBLIC_KEY_CACHE_SIZE, HOT_KEY_THRESHOLD, HOT_KEY_WINDOW_WIDTH);
+
+    private static volatile CryptoProvider keyGenerationProvider = CryptoProviderType.SDK.getProvider();
+    private static volatile CryptoProvider keyAgreementProvider = CryptoProviderType.SDK.getProvider();
+    private static volatile CryptoProvider signatureProvider = CryptoProviderType.SDK.getProvider();
+    private static volatile CryptoProvider decryptionProvider = CryptoProviderType.SDK.getProvider();
+    private static volatile CryptoProvider digestProvider = CryptoProviderType.SDK.getProvider();
+
+    /**
+     * Get the number of decoded public keys kept for signature verification.
+     *
+     * @return The size of the public key cache.
+     */
+    public static int getPublicKeyCacheSize() {
+        return PUBLIC_KEY_CACHE.size();
+    }
+
+    /**
+     * Set the crypto providers of the operations.
+     *
+     * @param keyGeneration The provider for key pair generation.
+     * @param keyAgreement The provider for shared secret generation.
+     * @param signature The provider for signature verification.
+     * @param decryption The provider for decryption.
+     * @param digest The provider for SHA-256 hashing.
+     */
+    public static void setCryptoProviders(CryptoProvider keyGeneration, CryptoProvider keyAgreement, CryptoProvider signature,
+                                          CryptoProvider decryption, CryptoProvider digest) {
+        keyGenerationProvider = keyGeneration;
+        keyAgreementProvider = keyAgreement;
+        signatureProvider = signature;
+        decryptionProvider = decryption;
+        digestProvider = digest;
+    }
+
     /**
      * Generate a key pair.
      *
@@ -57,8 +101,8 @@ public class BaseCryptoUtil {
      */
     public static KeyPairInterface generateKeyPair(EccCurveType eccCurveType) {
         try {
-            return CryptoUtils.generateKeyPair(eccCurveType.toOmnioneDidKeyType());
-        } catch (CryptoException e) {
+            return keyGenerationProvider.generateKeyPair(eccCurveType);
+        } catch (GeneralSecurityException e) {
             log.error("Failed to generate key pair: " + e.getMessage());
             throw new OpenDidException(ErrorCode.CRYPTO_KEY_PAIR_GENERATION_FAILED);
         }
@@ -93,8 +137,8 @@ public class BaseCryptoUtil {
      */
     public static byte[] generateSharedSecret(byte[] compressedPublicKey, byte[] privateKey, EccCurveType curveType) {
         try {
-            return CryptoUtils.generateSharedSecret(compressedPublicKey, privateKey, curveType.toOmnioneEccCurveType());
-        } catch (CryptoException e) {
+            return keyAgreementProvider.generateSharedSecret(compressedPublicKey, privateKey, curveType);
+        } catch (GeneralSecurityException e) {
             log.error("Failed to generate shared secret: " + e.getMessage());
             throw new OpenDidException(ErrorCode.CRYPTO_SHARED_SECRET_GENERATION_FAILED);
         }
@@ -112,18 +156,17 @@ public class BaseCryptoUtil {
      */
     public static byte[] mergeSharedSecretAndNonce(byte[] sharedSecret, byte[] nonce, SymmetricCipherType symmetricCipherType) {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            digest.update(sharedSecret, 0, sharedSecret.length);
-            digest.update(nonce, 0, nonce.length);
+            byte[] merged = Arrays.copyOf(sharedSecret, sharedSecret.length + nonce.length);
+            System.arraycopy(nonce, 0, merged, sharedSecret.length, nonce.length);
 
-            byte[] combinedResult = digest.digest();
+            byte[] combinedResult = digestProvider.sha256(merged);
 
             return switch (symmetricCipherType) {
                 case AES_128_CBC, AES_128_ECB -> Arrays.copyOfRange(combinedResult, 0, 16);
                 case AES_256_CBC, AES_256_ECB -> Arrays.copyOfRange(combinedResult, 0, 32);
                 default -> throw new RuntimeException("Invalid symmetric cipher type: " + symmetricCipherType);
             };
-        } catch (NoSuchAlgorithmException e) {
+        } catch (GeneralSecurityException e) {
             log.error("Failed to merge shared secret and nonce: " + e.getMessage());
             throw new OpenDidException(ErrorCode.CRYPTO_SHARED_SECRET_NONCE_MERGE_FAILED);
         }
@@ -142,9 +185,8 @@ public class BaseCryptoUtil {
      */
     public static byte[] decrypt(byte[] encrypteData, byte[] key, byte[] iv, SymmetricCipherType symmetricCipherType, SymmetricPaddingType symmetricPaddingType) {
         try {
-            CipherInfo cipherInfo = new CipherInfo(symmetricCipherType.toOmnioneSymmetricCipherType(), symmetricPaddingType.toOmnioneSymmetricPaddingType());
-            return CryptoUtils.decrypt(encrypteData, cipherInfo, key, iv);
-        } catch (CryptoException e) {
+            return decryptionProvider.decrypt(encrypteData, key, iv, symmetricCipherType, symmetricPaddingType);
+        } catch (GeneralSecurityException e) {
             log.error("Failed to decrypt data: " + e.getMessage());
             throw new OpenDidException(ErrorCode.CRYPTO_DECRYPTION_FAILED);
         }
@@ -162,33 +204,124 @@ public class BaseCryptoUtil {
          return decrypt(BaseMultibaseUtil.decode(encrypteData), key, iv, symmetricCipherType, symmetricPaddingType);
     }
 
+    /**
+     * Generate a SHA-256 hash.
+     *
+     * @param input The data to hash.
+     * @return The SHA-256 hash.
+     * @throws OpenDidException if the hash generation fails.
+     */
+    public static byte[] sha256(byte[] input) {
+        try {
+            return digestProvider.sha256(input);
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to generate hash value: " + e.getMessage());
+            throw new OpenDidException(ErrorCode.GENERATE_HASH_FAILED);
+        }
+    }
+
     /**
      * Verify a signature.
-     * The public key is decoded from the multibase encoded public key.
-     * The signature is verified using the public key.
-     * The signData is hashed using SHA-256 and the length of the result is determined by the symmetric cipher type.
+     * If the signature provider verifies decoded keys, the public key is taken from the public key cache
+     * together with the precomputation kept for it, so that keys used for many signatures are decoded once.
+     * The signData is expected to be already hashed.
      *
-     * @param encodedPublicKey Encoded public key
-     * @param encodedSignature Encoded signature
-     * @param signData Data to verify
+     * @param encodedPublicKey Encoded compressed public key
+     * @param encodedSignature Encoded compact signature
+     * @param signData Hashed data to verify
      * @param eccCurveType ECC curve type
      * @throws OpenDidException if signature verification fails
      */
     public static void verifySignature(String encodedPublicKey, String encodedSignature, byte[] signData, EccCurveType eccCurveType) {
+        byte[] publicKeyBytes;
         try {
-            // Decode the public key
-            byte[] publicKeyBytes = BaseMultibaseUtil.decode(encodedPublicKey);
-            byte[] signatureBytes = BaseMultibaseUtil.decode(encodedSignature);
-
-            // Verify the signature
-            SignatureUtils.verifyCompactSignWithCompressedKey(publicKeyBytes, signData, signatureBytes, eccCurveType.toOmnioneEccCurveType());
-        }  catch (CryptoException e) {
-            log.error("Failed to verify signature: " + e.getMessage());
+            publicKeyBytes = BaseMultibaseUtil.decode(encodedPublicKey);
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to verify signature: invalid public key " + encodedPublicKey);
             throw new OpenDidException(ErrorCode.SIGNATURE_VERIFICATION_FAILED);
         }
+        verifyCompactSignature(publicKeyBytes, null, eccCurveType, encodedSignature, signData, encodedPublicKey);
     }
 
 
+    /**
+     * Build the key material of a verification method.
+     * The multibase encoded public key is decoded once, so that the result can be reused for any number
+     * of signature verifications. If the signature provider verifies decoded keys, the key is also decompressed
+     * and shared with the public key cache, so both verification paths build on the same precomputation.
+     *
+     * @param keyUrl DID key URL of the verification method
+     * @param verificationMethod Verification method
+     * @return Key material
+     * @throws OpenDidException if the key type is not supported or the public key is invalid
+     */
+    public static KeyMaterial toKeyMaterial(String keyUrl, VerificationMethod verificationMethod) {
+        EccCurveType eccCurveType = EccCurveType.fromVerificationKeyType(verificationMethod.getType());
+        byte[] compressedPublicKey = BaseMultibaseUtil.decode(verificationMethod.getPublicKeyMultibase());
+        try {
+            ECPublicKeyParameters publicKey = signatureProvider.verifiesCompressedPublicKey()
+                    ? null : PUBLIC_KEY_CACHE.getPublicKey(eccCurveType, compressedPublicKey, BouncyCastleCryptoProvider.getDomainParameters(eccCurveType));
+            return new KeyMaterial(keyUrl, verificationMethod, eccCurveType, compressedPublicKey, publicKey);
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to decode public key of {}: {}", keyUrl, e.getMessage());
+            throw new OpenDidException(ErrorCode.CRYPTO_ERROR);
+        }
+    }
+
+    /**
+     * Verify a compact signature with the key material of a verification method.
+     * This is equivalent to verifying with the encoded public key, but skips decoding the public key,
+     * and reuses the precomputation kept on the public key point.
+     * The signData is expected to be already hashed.
+     *
+     * @param keyMaterial Key material of the signer
+     * @param encodedSignature Encoded compact signature
+     * @param signData Hashed data to verify
+     * @throws OpenDidException if signature verification fails
+     */
+    public static void verifySignature(KeyMaterial keyMaterial, String encodedSignature, byte[] signData) {
+        verifyCompactSignature(keyMaterial.getCompressedPublicKey(), keyMaterial.getPublicKey(), keyMaterial.getEccCurveType(),
+                encodedSignature, signData, keyMaterial.getKeyUrl());
+    }
+
+    /**
+     * Verify a compact signature with the public key in the form the signature provider uses.
+     *
+     * @param compressedPublicKey Compressed public key of the signer
+     * @param publicKey Decoded public key of the signer, or null to take it from the public key cache
+     * @param eccCurveType ECC curve type of the public key
+     * @param encodedSignature Encoded compact signature
+     * @param signData Hashed data to verify
+     * @param signer Description of the signer's key, for logging
+     * @throws OpenDidException if signature verification fails
+     */
+    private static void verifyCompactSignature(byte[] compressedPublicKey, ECPublicKeyParameters publicKey, EccCurveType eccCurveType,
+                                               String encodedSignature, byte[] signData, String signer) {
+        CryptoProvider provider = signatureProvider;
+        if (!provider.verifiesCompressedPublicKey() && publicKey == null) {
+            try {
+                publicKey = PUBLIC_KEY_CACHE.getPublicKey(eccCurveType, compressedPublicKey, BouncyCastleCryptoProvider.getDomainParameters(eccCurveType));
+            } catch (IllegalArgumentException e) {
+                log.error("Failed to verify signature: invalid public key " + signer);
+                throw new OpenDidException(ErrorCode.SIGNATURE_VERIFICATION_FAILED);
+            }
+        }
+        byte[] signatureBytes = BaseMultibaseUtil.decode(encodedSignature);
+        boolean verified;
+        try {
+            verified = provider.verifiesCompressedPublicKey()
+                    ? provider.verifySignature(compressedPublicKey, signatureBytes, signData, eccCurveType)
+                    : provider.verifySignature(publicKey, signatureBytes, signData, eccCurveType);
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to verify signature with " + signer + ": " + e.getMessage());
+            throw new OpenDidException(ErrorCode.SIGNATURE_VERIFICATION_FAILED);
+        }
+        if (!verified) {
+            log.error("Failed to verify signature with " + signer);
+            throw new OpenDidException(ErrorCode.SIGNATURE_VERIFICATION_FAILED);
+        }
+    }
+
     /**
      * Compress a public key.
      */
@@ -41,7 +41,7 @@ public class BaseDigestUtil {
      * @return The SHA-256 hash value as a byte array.
      */
     public static byte[] generateHash(byte[] input) {
-        return generateHash(input, DigestType.SHA256);
+        return BaseCryptoUtil.sha256(input);
     }
 
     /**
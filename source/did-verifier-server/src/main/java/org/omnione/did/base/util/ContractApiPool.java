@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.omnione.did.ContractApi;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.data.model.did.DidDocAndStatus;
+import org.omnione.exception.BlockChainException;
+import org.omnione.exception.BlockchainErrorCode;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This class keeps ContractApi clients in a pool, configured by the "fabric.pool.*" entries of the blockchain properties.
+ *
+ * A client whose call fails to connect to the network is discarded instead of being returned to the pool.
+ * Idle clients are validated and evicted in the background, so a broken connection is replaced without a restart,
+ * and every discarded client has its gateway connections closed.
+ * Borrow wait times, borrow timeouts and the pool size are published as metrics.
+ */
+@Slf4j
+public class ContractApiPool implements AutoCloseable {
+
+    private final GenericObjectPool<ContractApi> pool;
+    private final Timer borrowTimer;
+    private final Counter borrowTimeoutCounter;
+
+    /**
+     * Create the pool of Fabric ContractApi clients.
+     *
+     * @param properties The blockchain properties.
+     * @param meterRegistry The registry to publish the pool metrics to.
+     */
+    public ContractApiPool(Properties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, BaseBlockChainUtil::initBlockChain, BaseBlockChainUtil::closeContractApi);
+    }
+
+    ContractApiPool(Properties properties, MeterRegistry meterRegistry,
+                    Supplier<ContractApi> clientFactory, Consumer<ContractApi> clientCloser) {
+        this.pool = new GenericObjectPool<>(
+                new ContractApiFactory(clientFactory, clientCloser, properties.getProperty("fabric.pool.validationDidKeyUrl")),
+                createConfig(properties));
+        this.borrowTimer = Timer.builder("did.blockchain.pool.borrow")
+                .description("Time spent waiting for a ContractApi client")
+                .register(meterRegistry);
+        this.borrowTimeoutCounter = Counter.builder("did.blockchain.pool.borrow.timeouts")
+                .description("Number of ContractApi borrows that timed out")
+                .register(meterRegistry);
+        Gauge.builder("did.blockchain.pool.active", pool, GenericObjectPool::getNumActive)
+                .description("Number of ContractApi clients in use")
+                .register(meterRegistry);
+        Gauge.builder("did.blockchain.pool.idle", pool, GenericObjectPool::getNumIdle)
+                .description("Number of idle ContractApi clients")
+                .register(meterRegistry);
+        Gauge.builder("did.blockchain.pool.waiters", pool, GenericObjectPool::getNumWaiters)
+                .description("Number of threads waiting for a ContractApi client")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Find DID Document
+     *
+     * @param didKeyUrl The Decentralized Identifier (DID) to look up.
+     * @return DidDocAndStatus containing the DID document and its status.
+     * @throws OpenDidException if the DID is invalid or not found,
+     *         or with DID_STORAGE_UNAVAILABLE if the blockchain cannot be reached.
+     */
+    public DidDocAndStatus findDidDocument(String didKeyUrl) {
+        ContractApi contractApi = borrowContractApi();
+        boolean broken = false;
+        try {
+            return (DidDocAndStatus) contractApi.getDidDoc(didKeyUrl);
+        } catch (BlockChainException e) {
+            broken = isConnectionError(e);
+            log.error("Failed to get DID Document: " + e.getMessage());
+            throw new OpenDidException(broken ? ErrorCode.DID_STORAGE_UNAVAILABLE : ErrorCode.BLOCKCHAIN_GET_DID_DOC_FAILED);
+        } finally {
+            releaseContractApi(contractApi, broken);
+        }
+    }
+
+    /**
+     * Close the pool and the network connections of its idle clients.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * Borrow a ContractApi client from the pool.
+     *
+     * @return The ContractApi client.
+     * @throws OpenDidException if no client becomes available in time or a client cannot be created.
+     */
+    private ContractApi borrowContractApi() {
+        long start = System.nanoTime();
+        try {
+            return pool.borrowObject();
+        } catch (NoSuchElementException e) {
+            borrowTimeoutCounter.increment();
+            log.error("Timed out waiting for a ContractApi client: " + e.getMessage());
+            throw new OpenDidException(ErrorCode.DID_STORAGE_UNAVAILABLE);
+        } catch (Exception e) {
+            log.error("Failed to create a ContractApi client: " + e.getMessage());
+            throw new OpenDidException(ErrorCode.DID_STORAGE_UNAVAILABLE);
+        } finally {
+            borrowTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Return a ContractApi client to the pool, or discard it when its connection is broken.
+     *
+     * @param contractApi The ContractApi client.
+     * @param broken Whether the client failed to connect to the network.
+     */
+    private void releaseContractApi(ContractApi contractApi, boolean broken) {
+        if (!broken) {
+            pool.returnObject(contractApi);
+            return;
+        }
+        try {
+            pool.invalidateObject(contractApi);
+        } catch (Exception e) {
+            log.error("Failed to discard a ContractApi client: " + e.getMessage());
+        }
+    }
+
+    private static boolean isConnectionError(BlockChainException e) {
+        return BlockchainErrorCode.CONNECTION_ERROR.getCode().equals(e.getErrorCode());
+    }
+
+    private static GenericObjectPoolConfig<ContractApi> createConfig(Properties properties) {
+        GenericObjectPoolConfig<ContractApi> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(Integer.parseInt(properties.getProperty("fabric.pool.maxTotal", "8")));
+        config.setMinIdle(Integer.parseInt(properties.getProperty("fabric.pool.minIdle", "1")));
+        config.setMaxIdle(Integer.parseInt(properties.getProperty("fabric.pool.maxIdle", "4")));
+        config.setMaxWait(Duration.ofMillis(Long.parseLong(properties.getProperty("fabric.pool.maxWaitMillis", "5000"))));
+        config.setTimeBetweenEvictionRuns(Duration.ofMillis(
+                Long.parseLong(properties.getProperty("fabric.pool.timeBetweenEvictionRunsMillis", "60000"))));
+        config.setMinEvictableIdleDuration(Duration.ofMillis(
+                Long.parseLong(properties.getProperty("fabric.pool.minEvictableIdleTimeMillis", "600000"))));
+        config.setTestWhileIdle(Boolean.parseBoolean(properties.getProperty("fabric.pool.testWhileIdle", "true")));
+        config.setTestOnBorrow(Boolean.parseBoolean(properties.getProperty("fabric.pool.testOnBorrow", "false")));
+        // Check every idle client on each eviction run
+        config.setNumTestsPerEvictionRun(config.getMaxIdle());
+        config.setJmxEnabled(false);
+        return config;
+    }
+
+    /**
+     * Creates, validates and closes the pooled ContractApi clients.
+     */
+    private static class ContractApiFactory extends BasePooledObjectFactory<ContractApi> {
+        private final Supplier<ContractApi> clientFactory;
+        private final Consumer<ContractApi> clientCloser;
+        private final String validationDidKeyUrl;
+
+        ContractApiFactory(Supplier<ContractApi> clientFactory, Consumer<ContractApi> clientCloser,
+                           String validationDidKeyUrl) {
+            this.clientFactory = clientFactory;
+            this.clientCloser = clientCloser;
+            this.validationDidKeyUrl = validationDidKeyUrl == null || validationDidKeyUrl.isBlank()
+                    ? null : validationDidKeyUrl.trim();
+        }
+
+        @Override
+        public ContractApi create() {
+            return clientFactory.get();
+        }
+
+        @Override
+        public PooledObject<ContractApi> wrap(ContractApi contractApi) {
+            return new DefaultPooledObject<>(contractApi);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<ContractApi> pooledObject, DestroyMode destroyMode) {
+            clientCloser.accept(pooledObject.getObject());
+        }
+
+        /**
+         * A client is valid while it can reach the network.
+         * It is probed with a lookup of the validation DID, where any answer other than a connection error counts,
+         * so the DID does not have to exist. Without a validation DID, every client is valid.
+         */
+        @Override
+        public boolean validateObject(PooledObject<ContractApi> pooledObject) {
+            if (validationDidKeyUrl == null) {
+                return true;
+            }
+            try {
+                pooledObject.getObject().getDidDoc(validationDidKeyUrl);
+                return true;
+            } catch (BlockChainException e) {
+                if (isConnectionError(e)) {
+                    log.warn("Discarding a ContractApi client that cannot reach the network: " + e.getMessage());
+                    return false;
+                }
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Discarding a ContractApi client that failed validation: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.util;
+
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A size-bounded cache of decoded public keys, keyed by curve and compressed public key.
+ *
+ * BouncyCastle keeps the precomputed multiples of a point that signature verification uses on the point
+ * object itself, so verifying against a cached key skips decompressing the key and rebuilding its table.
+ * Once a key has been used for the configured number of verifications it is considered hot, and its table
+ * is widened so that each further verification needs fewer point additions. The least recently used keys
+ * are dropped when the cache is full.
+ */
+public class PublicKeyCache {
+    private final int maxSize;
+    private final int hotThreshold;
+    private final int hotWindowWidth;
+    private final Map<CacheKey, Entry> cache;
+
+    public PublicKeyCache(int maxSize, int hotThreshold, int hotWindowWidth) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.hotThreshold = hotThreshold;
+        this.hotWindowWidth = hotWindowWidth;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                return size() > PublicKeyCache.this.maxSize;
+            }
+        };
+    }
+
+    private record CacheKey(EccCurveType eccCurveType, ByteBuffer compressedPublicKey) {
+    }
+
+    private static class Entry {
+        private final ECPublicKeyParameters publicKey;
+        private final AtomicInteger uses = new AtomicInteger();
+
+        private Entry(ECPublicKeyParameters publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
+
+    /**
+     * Return the public key for a compressed public key, decoding it if it is not cached yet.
+     * Every call counts as a use of the key.
+     *
+     * @param eccCurveType The curve of the key.
+     * @param compressedPublicKey The compressed public key.
+     * @param domainParameters The domain parameters of the curve.
+     * @return The public key.
+     * @throws IllegalArgumentException if the public key is not a point on the curve.
+     */
+    public ECPublicKeyParameters getPublicKey(EccCurveType eccCurveType, byte[] compressedPublicKey,
+                                              ECDomainParameters domainParameters) {
+        CacheKey key = new CacheKey(eccCurveType, ByteBuffer.wrap(compressedPublicKey.clone()));
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry == null) {
+            ECPoint point = domainParameters.getCurve().decodePoint(compressedPublicKey).normalize();
+            Entry newEntry = new Entry(new ECPublicKeyParameters(point, domainParameters));
+            synchronized (cache) {
+                entry = cache.putIfAbsent(key, newEntry);
+            }
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+        if (entry.uses.incrementAndGet() == hotThreshold) {
+            WNafUtil.precompute(entry.publicKey.getQ(), hotWindowWidth, true);
+        }
+        return entry.publicKey;
+    }
+
+    /**
+     * Return the number of keys currently stored in the cache.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
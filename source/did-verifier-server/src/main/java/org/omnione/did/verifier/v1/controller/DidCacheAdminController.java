@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.omnione.did.base.constants.UrlConstant;
+import org.omnione.did.verifier.v1.dto.InvalidateDidCacheReqDto;
+import org.omnione.did.verifier.v1.dto.InvalidateDidCacheResDto;
+import org.omnione.did.verifier.v1.service.DidCacheInvalidationService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The DidCacheAdminController class provides administrative operations on the DID Document cache.
+ * It is used to make key rotations and DID deactivations take effect on every verifier node
+ * without waiting for the cached DID Documents to expire.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(value = UrlConstant.Verifier.V1)
+public class DidCacheAdminController {
+    private final DidCacheInvalidationService didCacheInvalidationService;
+
+    /**
+     * Invalidates the cached DID Documents of a DID on all verifier nodes.
+     *
+     * @param invalidateDidCacheReqDto The request data containing the DID to invalidate
+     * @return InvalidateDidCacheResDto The response containing the invalidated DID
+     */
+    @PostMapping(value = UrlConstant.Verifier.INVALIDATE_DID_CACHE)
+    @Operation(summary = "Invalidate DID cache", description = "Evicts the DID Documents of a DID from the cache of every verifier node")
+    public InvalidateDidCacheResDto invalidateDidCache(@RequestBody @Valid InvalidateDidCacheReqDto invalidateDidCacheReqDto) {
+        didCacheInvalidationService.publishInvalidation(invalidateDidCacheReqDto.getDid());
+        return InvalidateDidCacheResDto.builder()
+                .did(invalidateDidCacheReqDto.getDid())
+                .build();
+    }
+}
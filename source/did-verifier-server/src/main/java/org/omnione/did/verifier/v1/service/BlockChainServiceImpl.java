@@ -20,13 +20,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
-import org.omnione.did.base.util.BaseBlockChainUtil;
+import org.omnione.did.base.util.ContractApiPool;
 import org.omnione.did.data.model.did.DidDocAndStatus;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.vc.VcMeta;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
 /**
  * Implementation of the {@link StorageService} interface that uses blockchain to manage
  * DID documents and VC metadata.
@@ -38,23 +41,40 @@ import org.springframework.stereotype.Service;
 @Slf4j
 @Profile("!repository")
 public class BlockChainServiceImpl implements StorageService {
+    private final ContractApiPool contractApiPool;
+    private final ExecutorService didResolutionExecutor;
 
     /**
      * Finds a DID document on the blockchain using the provided DID key URL.
      *
      * @param didKeyUrl URL of the DID key.
      * @return The corresponding DID document.
-     * @throws OpenDidException if the DID document cannot be found.
+     * @throws OpenDidException if the DID document cannot be found,
+     *         or with DID_STORAGE_UNAVAILABLE if the blockchain cannot be reached.
      */
     @Override
     public DidDocument findDidDoc(String didKeyUrl) {
         try {
-            DidDocAndStatus didDocAndStatus = BaseBlockChainUtil.findDidDocument(didKeyUrl);
+            DidDocAndStatus didDocAndStatus = contractApiPool.findDidDocument(didKeyUrl);
             return didDocAndStatus.getDocument();
         } catch (OpenDidException e) {
             log.error("Failed to find DID Document: {}", e.getMessage());
+            if (e.getErrorCode() == ErrorCode.DID_STORAGE_UNAVAILABLE) {
+                throw e;
+            }
             throw new OpenDidException(ErrorCode.FAILED_TO_FIND_DID_DOC);
         }
     }
 
+    /**
+     * Starts finding a DID document on the blockchain on the DID resolution executor.
+     *
+     * @param didKeyUrl URL of the DID key.
+     * @return Future completed with the found DID document.
+     */
+    @Override
+    public CompletableFuture<DidDocument> findDidDocAsync(String didKeyUrl) {
+        return CompletableFuture.supplyAsync(() -> findDidDoc(didKeyUrl), didResolutionExecutor);
+    }
+
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+/**
+ * Service interface for invalidating cached DID Documents on every verifier node.
+ */
+public interface DidCacheInvalidationService {
+    /**
+     * Publishes the invalidation of a DID to all verifier nodes.
+     *
+     * @param did DID whose cached DID Documents are invalidated.
+     */
+    void publishInvalidation(String did);
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.DidCacheProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidates cached DID Documents on every verifier node through Postgres LISTEN/NOTIFY.
+ *
+ * Each node keeps one database connection that LISTENs on the configured channel and evicts the DID
+ * named by every notification from its DID Document cache and its verified credentials. Publishing an
+ * invalidation evicts the DID locally, withdraws the latest-version confirmation of the DID from the
+ * shared cache table, and NOTIFYs the other nodes.
+ *
+ * The listener runs on its own thread and reconnects after a lost connection. Invalidations published
+ * while a node is disconnected do not reach it; its entries then expire with the configured time-to-live.
+ */
+@Service
+@Slf4j
+public class DidCacheInvalidationServiceImpl implements DidCacheInvalidationService {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DidDocService didDocService;
+    private final VpVerificationService vpVerificationService;
+    private final DidDocumentCacheQueryService didDocumentCacheQueryService;
+    private final DidCacheProperty didCacheProperty;
+    private final String channel;
+    private final ExecutorService listenerExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("did-cache-invalidation-"));
+    private volatile boolean running;
+
+    public DidCacheInvalidationServiceImpl(DataSource dataSource,
+                                           JdbcTemplate jdbcTemplate,
+                                           DidDocService didDocService,
+                                           VpVerificationService vpVerificationService,
+                                           DidDocumentCacheQueryService didDocumentCacheQueryService,
+                                           DidCacheProperty didCacheProperty) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.didDocService = didDocService;
+        this.vpVerificationService = vpVerificationService;
+        this.didDocumentCacheQueryService = didDocumentCacheQueryService;
+        this.didCacheProperty = didCacheProperty;
+        this.channel = didCacheProperty.getInvalidationChannel();
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid DID cache invalidation channel: " + channel);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (didCacheProperty.isInvalidationEnabled()) {
+            running = true;
+            listenerExecutor.execute(this::listen);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        listenerExecutor.shutdownNow();
+    }
+
+    /**
+     * Publishes the invalidation of a DID to all verifier nodes.
+     * The DID is evicted from this node even if the notification cannot be published.
+     *
+     * @param did DID whose cached DID Documents are invalidated.
+     * @throws OpenDidException if the invalidation cannot be published.
+     */
+    @Override
+    public void publishInvalidation(String did) {
+        evict(did);
+        try {
+            didDocumentCacheQueryService.clearLatest(did);
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, did);
+        } catch (RuntimeException e) {
+            log.error("Failed to publish the invalidation of DID {}: {}", did, e.getMessage());
+            throw new OpenDidException(ErrorCode.DID_CACHE_INVALIDATION_FAILED);
+        }
+    }
+
+    /**
+     * Evict a DID from the DID Document cache and forget the credentials verified with its keys.
+     */
+    private void evict(String did) {
+        didDocService.evictDidDocument(did);
+        vpVerificationService.evictVerifiedCredentials(did);
+    }
+
+    /**
+     * Listen for invalidations until the service is destroyed, reconnecting after failures.
+     */
+    private void listen() {
+        long pollInterval = Math.max(1, didCacheProperty.getInvalidationPollInterval().toMillis());
+        long reconnectInterval = didCacheProperty.getInvalidationReconnectInterval().toMillis();
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for DID cache invalidations on channel {}", channel);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            evict(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("DID cache invalidation listener failed, reconnecting in {} ms: {}", reconnectInterval, e.getMessage());
+                try {
+                    Thread.sleep(reconnectInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -18,69 +18,333 @@ package org.omnione.did.verifier.v1.service;
 
 import org.omnione.did.data.model.did.DidDocument;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * A cache for storing DID Documents with their corresponding timestamps.
+ * A bounded cache for storing DID Documents with their corresponding timestamps.
  * This class uses a ConcurrentHashMap to store the cache entries, providing
  * thread-safe access and modifications.
  *
- * The cache entries consist of a DID Document and a timestamp, which are stored
- * in the nested static class CacheEntry.
+ * Each entry becomes stale once it is older than the configured time-to-live.
+ * A stale entry is kept for at most the configured maximum staleness so that callers may keep
+ * serving it while a fresh copy is fetched; after that it is expired and removed.
+ * Pinned entries hold a DID Document version that can no longer change; they never become stale
+ * or expire, and only leave the cache through eviction.
+ * When the cache grows beyond its maximum size, expired entries are dropped first and
+ * then the least frequently used entries are evicted until the cache is back under its
+ * low-water mark. Access frequencies are halved after every eviction pass so that DIDs
+ * which were popular a long time ago do not stay in the cache forever.
+ *
+ * With an {@link OffHeapDocumentStore}, documents are kept as serialized JSON in off-heap memory and
+ * only a small index entry stays on the heap; every read deserializes a new document instance.
+ * Entries are then also evicted when the store runs out of space.
  *
  * Example usage:
  * <pre>
- *     DIDDocCache cache = new DIDDocCache();
- *     cache.putDIDDoc("did:example:123", new DIDDoc());
- *     Object didDoc = cache.getDIDDoc("did:example:123");
+ *     DidDocCache cache = new DidDocCache(10000, TimeUnit.HOURS.toMillis(1));
+ *     cache.putDidDoc("did:example:123", didDocument);
+ *     DidDocument didDoc = cache.getDidDoc("did:example:123");
  * </pre>
  */
 public class DidDocCache {
+    private static final int DEFAULT_MAX_SIZE = 10000;
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final double EVICTION_LOW_WATER_MARK = 0.9;
+
     private final ConcurrentHashMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long expiryMillis;
+    private final OffHeapDocumentStore offHeapStore;
+
+    public DidDocCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    public DidDocCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, 0);
+    }
+
+    public DidDocCache(int maxSize, long ttlMillis, long maxStalenessMillis) {
+        this(maxSize, ttlMillis, maxStalenessMillis, null);
+    }
+
+    public DidDocCache(int maxSize, long ttlMillis, long maxStalenessMillis, OffHeapDocumentStore offHeapStore) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (maxStalenessMillis < 0) {
+            throw new IllegalArgumentException("maxStaleness must not be negative: " + maxStalenessMillis);
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.expiryMillis = ttlMillis + maxStalenessMillis;
+        this.offHeapStore = offHeapStore;
+    }
 
     /**
-     * A cache entry for storing a DID Document and its timestamp.
+     * A cache entry for storing a DID Document, its timestamp and its access frequency.
+     * The entry also tracks the background refresh of its document: whether a refresh is running,
+     * and how long to back off after failed refreshes.
+     * An off-heap entry holds the slot of its serialized document instead of the document.
      */
     public static class CacheEntry {
-        private DidDocument didDocument;
-        private long timestamp;
+        private final DidDocument didDocument;
+        private final OffHeapDocumentStore offHeapStore;
+        private final OffHeapDocumentStore.Slot slot;
+        private final String versionId;
+        private final long timestamp;
+        private final boolean pinned;
+        private final AtomicInteger frequency = new AtomicInteger(1);
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile long lastAccess;
+        private volatile int refreshFailures;
+        private volatile long nextRefreshAt;
 
         public CacheEntry(DidDocument didDocument, long timestamp) {
+            this(didDocument, timestamp, false);
+        }
+
+        public CacheEntry(DidDocument didDocument, long timestamp, boolean pinned) {
+            this(didDocument, null, null, didDocument.getVersionId(), timestamp, pinned);
+        }
+
+        private CacheEntry(DidDocument didDocument, OffHeapDocumentStore offHeapStore, OffHeapDocumentStore.Slot slot,
+                           String versionId, long timestamp, boolean pinned) {
             this.didDocument = didDocument;
+            this.offHeapStore = offHeapStore;
+            this.slot = slot;
+            this.versionId = versionId;
             this.timestamp = timestamp;
+            this.pinned = pinned;
+            this.lastAccess = timestamp;
         }
 
+        /**
+         * Return the DID Document of this entry.
+         * An off-heap entry deserializes a new instance on every call, and returns null
+         * once the entry has been evicted and its slot freed.
+         */
         public DidDocument getDidDoc() {
-            return didDocument;
+            if (slot == null) {
+                return didDocument;
+            }
+            byte[] bytes = offHeapStore.load(slot);
+            if (bytes == null) {
+                return null;
+            }
+            DidDocument loaded = new DidDocument();
+            loaded.fromJson(new String(bytes, StandardCharsets.UTF_8));
+            return loaded;
+        }
+
+        /**
+         * Return the version ID of the DID Document without loading it.
+         */
+        public String getVersionId() {
+            return versionId;
         }
 
         public long getTimestamp() {
             return timestamp;
         }
+
+        public boolean isPinned() {
+            return pinned;
+        }
+
+        public int getFrequency() {
+            return frequency.get();
+        }
+
+        public int getRefreshFailures() {
+            return refreshFailures;
+        }
+
+        /**
+         * Claim the refresh of this entry.
+         * @param now The current time in milliseconds.
+         * @return true if the caller should refresh the entry, false if a refresh is already
+         *         running or the entry is backing off after a failure.
+         */
+        public boolean tryStartRefresh(long now) {
+            return now >= nextRefreshAt && refreshing.compareAndSet(false, true);
+        }
+
+        /**
+         * Release the refresh claimed with {@link #tryStartRefresh(long)}.
+         */
+        public void finishRefresh() {
+            refreshing.set(false);
+        }
+
+        /**
+         * Record a failed refresh and postpone the next one.
+         * The back-off doubles with every consecutive failure, up to the given maximum.
+         */
+        public void recordRefreshFailure(long now, long backoffMillis, long maxBackoffMillis) {
+            int failures = ++refreshFailures;
+            long backoff = backoffMillis << Math.min(failures - 1, 20);
+            nextRefreshAt = now + Math.min(backoff, maxBackoffMillis);
+        }
+
+        private void recordAccess(long now) {
+            frequency.updateAndGet(f -> f == Integer.MAX_VALUE ? f : f + 1);
+            lastAccess = now;
+        }
+
+        private void decay() {
+            frequency.updateAndGet(f -> f >> 1);
+        }
+
+        private boolean isOlderThan(long now, long ageMillis) {
+            return !pinned && now - timestamp > ageMillis;
+        }
     }
 
     /**
      * Retrieve the DID Document associated with the given DID.
+     * Stale and expired entries are reported as absent.
      */
     public DidDocument getDidDoc(String did) {
+        CacheEntry entry = getEntry(did);
+        if (entry == null || isStale(entry)) {
+            return null;
+        }
+        return entry.getDidDoc();
+    }
+
+    /**
+     * Retrieve the cache entry associated with the given DID, including a stale one.
+     * Expired entries are removed and reported as absent.
+     */
+    public CacheEntry getEntry(String did) {
         CacheEntry entry = cache.get(did);
-        return (entry != null) ? entry.getDidDoc() : null;
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.isOlderThan(now, expiryMillis)) {
+            if (cache.remove(did, entry)) {
+                release(entry);
+            }
+            return null;
+        }
+        entry.recordAccess(now);
+        return entry;
+    }
+
+    /**
+     * Checks if the given entry is older than the time-to-live.
+     */
+    public boolean isStale(CacheEntry entry) {
+        return entry.isOlderThan(System.currentTimeMillis(), ttlMillis);
     }
 
     /**
      * Store the given DID Document in the cache with the associated DID.
      * The current timestamp is used as the time of storage.
+     * The access frequency of a replaced entry is carried over to the new one.
      */
     public void putDidDoc(String did, DidDocument didDoc) {
-        cache.put(did, new CacheEntry(didDoc, System.currentTimeMillis()));
+        putEntry(did, didDoc, System.currentTimeMillis(), false);
     }
 
     /**
-     * Checks if a DID Document is stored in the cache for the given DID.
+     * Store the given DID Document as a pinned entry that never becomes stale or expires.
+     * Only use this for documents that can no longer change, such as a specific version of a DID.
+     */
+    public void putPinnedDidDoc(String did, DidDocument didDoc) {
+        putEntry(did, didDoc, System.currentTimeMillis(), true);
+    }
+
+    /**
+     * Restore an entry read from a cache snapshot with its original timestamp,
+     * so that it becomes stale and expires as if the cache had never been restarted.
+     * Expired entries and DIDs that are already cached are skipped.
+     *
+     * @return true if the entry was restored.
+     */
+    public boolean restoreDidDoc(String did, DidDocument didDoc, long timestamp, boolean pinned) {
+        if ((!pinned && System.currentTimeMillis() - timestamp > expiryMillis) || cache.containsKey(did)) {
+            return false;
+        }
+        CacheEntry entry = newEntry(didDoc, timestamp, pinned);
+        if (entry == null) {
+            return false;
+        }
+        if (cache.putIfAbsent(did, entry) != null) {
+            release(entry);
+            return false;
+        }
+        if (cache.size() > maxSize) {
+            evict(0);
+        }
+        return true;
+    }
+
+    private void putEntry(String did, DidDocument didDoc, long timestamp, boolean pinned) {
+        CacheEntry newEntry = newEntry(didDoc, timestamp, pinned);
+        if (newEntry == null) {
+            return;
+        }
+        CacheEntry oldEntry = cache.put(did, newEntry);
+        if (oldEntry != null) {
+            newEntry.frequency.set(oldEntry.getFrequency());
+            release(oldEntry);
+        }
+        if (cache.size() > maxSize) {
+            evict(0);
+        }
+    }
+
+    /**
+     * Create an entry for the given DID Document, storing it off-heap if an off-heap store is configured.
+     * When the store is full, entries are evicted to make room.
+     *
+     * @return The new entry, or null if the document does not fit into the off-heap store.
+     */
+    private CacheEntry newEntry(DidDocument didDoc, long timestamp, boolean pinned) {
+        if (offHeapStore == null) {
+            return new CacheEntry(didDoc, timestamp, pinned);
+        }
+        byte[] bytes = didDoc.toJson().getBytes(StandardCharsets.UTF_8);
+        OffHeapDocumentStore.Slot slot = offHeapStore.store(bytes);
+        if (slot == null) {
+            evict(bytes.length);
+            slot = offHeapStore.store(bytes);
+            if (slot == null) {
+                return null;
+            }
+        }
+        return new CacheEntry(null, offHeapStore, slot, didDoc.getVersionId(), timestamp, pinned);
+    }
+
+    private void release(CacheEntry entry) {
+        if (entry.slot != null) {
+            entry.offHeapStore.free(entry.slot);
+        }
+    }
+
+    /**
+     * Checks if a fresh DID Document is stored in the cache for the given DID.
      */
     public boolean containsDidDoc(String did) {
-        return cache.containsKey(did);
+        CacheEntry entry = cache.get(did);
+        return entry != null && !entry.isOlderThan(System.currentTimeMillis(), ttlMillis);
     }
 
     /**
@@ -93,10 +357,112 @@ public class DidDocCache {
     }
 
     /**
-     * Return a set of all DID Documents currently stored in the cache.
+     * Remove the DID Document stored for the given DID.
+     */
+    public void invalidate(String did) {
+        CacheEntry entry = cache.remove(did);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    /**
+     * Remove every DID Document stored for the given DID, including the pinned versions.
+     */
+    public void invalidateDid(String did) {
+        String versionPrefix = did + "?";
+        cache.forEach((key, entry) -> {
+            if ((key.equals(did) || key.startsWith(versionPrefix)) && cache.remove(key, entry)) {
+                release(entry);
+            }
+        });
+    }
+
+    /**
+     * Remove all entries that are older than the time-to-live plus the maximum staleness.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.forEach((did, entry) -> {
+            if (entry.isOlderThan(now, expiryMillis) && cache.remove(did, entry)) {
+                release(entry);
+            }
+        });
+    }
+
+    /**
+     * Return the stale entries that have been read since they were stored, keyed by DID.
+     * These are the entries worth refreshing before a request has to wait for them.
+     */
+    public Map<String, CacheEntry> getStaleEntriesInUse() {
+        long now = System.currentTimeMillis();
+        Map<String, CacheEntry> entries = new HashMap<>();
+        cache.forEach((did, entry) -> {
+            if (entry.isOlderThan(now, ttlMillis)
+                    && !entry.isOlderThan(now, expiryMillis)
+                    && entry.lastAccess > entry.timestamp) {
+                entries.put(did, entry);
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Return the number of entries currently stored in the cache.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Return a read-only view of all entries currently stored in the cache, keyed by DID.
+     */
+    public Map<String, CacheEntry> getEntries() {
+        return Collections.unmodifiableMap(cache);
+    }
+
+    /**
+     * Return a set of all DIDs currently stored in the cache.
      */
     public Set<String> getAllDids() {
         return cache.keySet();
     }
 
+    /**
+     * Shrink the cache to its low-water mark and, with an off-heap store, until a document
+     * of the given size fits into the store.
+     * Only one thread evicts at a time; concurrent writers skip eviction and let the
+     * running pass catch up with them.
+     *
+     * @param bytesNeeded The size of the document that has to fit into the off-heap store, or 0.
+     */
+    private void evict(int bytesNeeded) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            evictExpired();
+            int target = (int) (maxSize * EVICTION_LOW_WATER_MARK);
+            int excess = cache.size() - target;
+            boolean needsRoom = offHeapStore != null && bytesNeeded > 0 && !offHeapStore.hasRoomFor(bytesNeeded);
+            if (excess > 0 || needsRoom) {
+                List<Map.Entry<String, CacheEntry>> candidates = new ArrayList<>(cache.entrySet());
+                candidates.sort(Comparator
+                        .comparingInt((Map.Entry<String, CacheEntry> e) -> e.getValue().getFrequency())
+                        .thenComparingLong(e -> e.getValue().getTimestamp()));
+                for (int i = 0; i < candidates.size(); i++) {
+                    if (i >= excess && (!needsRoom || offHeapStore.hasRoomFor(bytesNeeded))) {
+                        break;
+                    }
+                    Map.Entry<String, CacheEntry> victim = candidates.get(i);
+                    if (cache.remove(victim.getKey(), victim.getValue())) {
+                        release(victim.getValue());
+                    }
+                }
+            }
+            cache.values().forEach(CacheEntry::decay);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
 }
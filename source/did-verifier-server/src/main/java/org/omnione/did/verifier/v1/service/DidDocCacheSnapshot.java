@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.data.model.did.DidDocument;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes snapshots of the DID Document cache, so that a restarted node starts with a warm cache.
+ *
+ * A snapshot is a compact binary file: a header, a table of the distinct DID Documents as JSON,
+ * and the cache entries. Each entry holds its cache key, the time it was stored, whether it is pinned,
+ * and the index of its document in the table; a document cached under several keys (e.g., per DID and
+ * per version) is written once. Because the original timestamps are kept, restored entries become stale
+ * and expire on the same schedule as before the restart.
+ *
+ * Snapshots are written to a temporary file that is then moved over the previous snapshot, so a crash
+ * while writing never leaves a truncated file behind. They are memory-mapped when read.
+ */
+@Slf4j
+public class DidDocCacheSnapshot {
+    private static final int MAGIC = 0x44444353;
+    private static final int FORMAT_VERSION = 1;
+    // Length prefix of the JSON of a document
+    private static final int MIN_DOCUMENT_BYTES = Integer.BYTES;
+    // Length prefix of the key, timestamp, pinned flag and document index of an entry
+    private static final int MIN_ENTRY_BYTES = Integer.BYTES + Long.BYTES + 1 + Integer.BYTES;
+
+    private final Path path;
+
+    public DidDocCacheSnapshot(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * A cache entry read from a snapshot.
+     */
+    public record Entry(String did, DidDocument didDocument, long timestamp, boolean pinned) {
+    }
+
+    /**
+     * Write the given cache entries to the snapshot file.
+     * The file is synced to disk before it replaces the previous snapshot.
+     *
+     * @param entries The cache entries, keyed by DID.
+     * @return The number of entries written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public int write(Map<String, DidDocCache.CacheEntry> entries) throws IOException {
+        Map<DidDocument, Integer> documentIndexes = new IdentityHashMap<>();
+        List<DidDocument> documents = new ArrayList<>();
+        List<Map.Entry<String, DidDocCache.CacheEntry>> cacheEntries = new ArrayList<>();
+        List<Integer> entryDocumentIndexes = new ArrayList<>();
+        for (Map.Entry<String, DidDocCache.CacheEntry> e : entries.entrySet()) {
+            DidDocument didDocument = e.getValue().getDidDoc();
+            if (didDocument == null) {
+                // Evicted while the snapshot is taken
+                continue;
+            }
+            Integer index = documentIndexes.putIfAbsent(didDocument, documents.size());
+            if (index == null) {
+                index = documents.size();
+                documents.add(didDocument);
+            }
+            cacheEntries.add(e);
+            entryDocumentIndexes.add(index);
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(documents.size());
+            for (DidDocument didDocument : documents) {
+                writeBytes(out, didDocument.toJson().getBytes(StandardCharsets.UTF_8));
+            }
+            out.writeInt(cacheEntries.size());
+            for (int i = 0; i < cacheEntries.size(); i++) {
+                DidDocCache.CacheEntry entry = cacheEntries.get(i).getValue();
+                writeBytes(out, cacheEntries.get(i).getKey().getBytes(StandardCharsets.UTF_8));
+                out.writeLong(entry.getTimestamp());
+                out.writeBoolean(entry.isPinned());
+                out.writeInt(entryDocumentIndexes.get(i));
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return cacheEntries.size();
+    }
+
+    /**
+     * Read the cache entries from the snapshot file.
+     * A missing, truncated or otherwise unreadable snapshot yields no entries.
+     *
+     * @return The cache entries in the snapshot.
+     */
+    public List<Entry> read() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring DID Document cache snapshot {}: unknown format", path);
+                return List.of();
+            }
+            buffer.getLong();
+
+            DidDocument[] documents = new DidDocument[readCount(buffer, MIN_DOCUMENT_BYTES)];
+            for (int i = 0; i < documents.length; i++) {
+                DidDocument didDocument = new DidDocument();
+                didDocument.fromJson(readString(buffer));
+                documents[i] = didDocument;
+            }
+            int entryCount = readCount(buffer, MIN_ENTRY_BYTES);
+            List<Entry> entries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                String did = readString(buffer);
+                long timestamp = buffer.getLong();
+                boolean pinned = buffer.get() != 0;
+                int documentIndex = buffer.getInt();
+                if (documentIndex < 0 || documentIndex >= documents.length) {
+                    throw new IOException("invalid document index " + documentIndex);
+                }
+                entries.add(new Entry(did, documents[documentIndex], timestamp, pinned));
+            }
+            return entries;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable DID Document cache snapshot {}: {}", path, e.toString());
+            return List.of();
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a count or length and check it against the rest of the file before anything is allocated for it,
+     * so that a corrupt snapshot cannot cause a huge allocation.
+     */
+    private static int readCount(MappedByteBuffer buffer, int minBytesPerItem) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / minBytesPerItem) {
+            throw new IOException("invalid length " + count + " with " + buffer.remaining() + " bytes left");
+        }
+        return count;
+    }
+
+    private static String readString(MappedByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
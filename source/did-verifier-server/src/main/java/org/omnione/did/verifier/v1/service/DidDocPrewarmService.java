@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.property.DidCacheProperty;
+import org.omnione.did.base.property.VerifierProperty;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service for pre-warming the DID Document cache with the DIDs that verifications are known to reference.
+ *
+ * These are the verifier's own DID and the allowed issuers of every credential schema in the loaded
+ * VP policies. Their DID Documents are resolved in parallel and the key material of their verification
+ * methods is derived, so that the first verification after a deploy does not wait for the storage service.
+ *
+ * Pre-warming runs when the application has started, which is before it reports that it is ready
+ * to accept traffic. It is bounded by the configured timeout and never fails the startup; DIDs that
+ * could not be resolved are simply resolved on first use.
+ */
+@Service
+@Slf4j
+@Profile("!sample")
+@RequiredArgsConstructor
+public class DidDocPrewarmService {
+
+    private static final String VERSION_ID_QUERY = "?versionId=";
+
+    private final DidDocService didDocService;
+    private final FileLoaderService fileLoaderService;
+    private final VerifierProperty verifierProperty;
+    private final DidCacheProperty didCacheProperty;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (didCacheProperty.isPrewarmEnabled()) {
+            prewarm();
+        }
+    }
+
+    /**
+     * Resolve the DID Documents of the verifier and of the allowed issuers of all VP policies
+     * into the DID Document cache, and derive the key material of their verification methods.
+     * Call this again after the VP policies have been reloaded.
+     *
+     * @return The number of DID Documents that were resolved.
+     */
+    public int prewarm() {
+        long start = System.currentTimeMillis();
+        Set<String> dids = collectDids();
+        List<CompletableFuture<DidDocument>> resolutions = new ArrayList<>(dids.size());
+        for (String did : dids) {
+            resolutions.add(didDocService.getDidDocumentAsync(did).whenComplete((didDocument, throwable) -> {
+                if (throwable != null) {
+                    log.warn("Failed to pre-warm DID Document {}: {}", did, throwable.getMessage());
+                } else {
+                    precomputeKeyMaterial(didDocument);
+                }
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(resolutions.toArray(new CompletableFuture<?>[0]))
+                    .get(didCacheProperty.getPrewarmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failed DIDs are logged above and resolved again on first use
+        } catch (TimeoutException e) {
+            log.warn("DID Document pre-warming did not finish within {}", didCacheProperty.getPrewarmTimeout());
+        }
+
+        int resolved = (int) resolutions.stream()
+                .filter(resolution -> resolution.isDone() && !resolution.isCompletedExceptionally())
+                .count();
+        log.info("Pre-warmed {} of {} DID Documents in {} ms", resolved, dids.size(), System.currentTimeMillis() - start);
+        return resolved;
+    }
+
+    /**
+     * Collect the verifier's DID and the allowed issuers of all VP policies.
+     */
+    private Set<String> collectDids() {
+        Set<String> dids = new LinkedHashSet<>();
+        if (verifierProperty.getDid() != null) {
+            dids.add(verifierProperty.getDid());
+        }
+        for (VpPolicySnapshot vpPolicy : fileLoaderService.getPolicies()) {
+            Filter filter = vpPolicy.getFilter();
+            if (filter == null || filter.getCredentialSchemas() == null) {
+                continue;
+            }
+            for (CredentialSchema credentialSchema : filter.getCredentialSchemas()) {
+                if (credentialSchema.getAllowedIssuers() != null) {
+                    dids.addAll(credentialSchema.getAllowedIssuers());
+                }
+            }
+        }
+        return dids;
+    }
+
+    /**
+     * Derive the key material of every verification method of a DID Document,
+     * keyed by the versioned key URL that proofs refer to.
+     */
+    private void precomputeKeyMaterial(DidDocument didDocument) {
+        if (didDocument.getVerificationMethod() == null) {
+            return;
+        }
+        String didUrl = didDocument.getId() + VERSION_ID_QUERY + didDocument.getVersionId();
+        for (VerificationMethod verificationMethod : didDocument.getVerificationMethod()) {
+            String keyUrl = didUrl + "#" + verificationMethod.getId();
+            try {
+                didDocService.getKeyMaterial(keyUrl);
+            } catch (RuntimeException e) {
+                log.warn("Failed to pre-compute key material of {}: {}", keyUrl, e.getMessage());
+            }
+        }
+    }
+}
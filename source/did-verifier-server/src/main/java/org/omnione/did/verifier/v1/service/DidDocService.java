@@ -16,26 +16,64 @@
 
 package org.omnione.did.verifier.v1.service;
 
+import org.omnione.did.base.datamodel.data.KeyMaterial;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.enums.did.ProofPurpose;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service interface for handling DID documents and verification methods.
  *
  * Provides methods for:
  * - Retrieving a DID document by its DID identifier
+ * - Retrieving the DID documents of several DID identifiers at once
+ * - Retrieving the latest DID documents of the signers of proofs
  * - Obtaining a verification method based on the proof purpose from a DID document
+ * - Retrieving the key material of a verification method by its DID key URL
  */
 public interface DidDocService {
 
     /**
      * Retrieves a DID document using the provided DID identifier.
+     * The document may be served from a cache.
      *
-     * @param did The DID identifier.
+     * @param did The DID identifier or DID key URL.
      * @return The corresponding DID document.
      */
     DidDocument getDidDocument(String did);
 
+    /**
+     * Starts retrieving a DID document without blocking the caller.
+     * Lookups of the same DID that are already running are shared.
+     *
+     * @param did The DID identifier or DID key URL.
+     * @return Future completed with the corresponding DID document.
+     */
+    CompletableFuture<DidDocument> getDidDocumentAsync(String did);
+
+    /**
+     * Retrieves the DID documents of several DID identifiers at once.
+     * Documents that are not cached are fetched together.
+     *
+     * @param dids The DID identifiers or DID key URLs.
+     * @return The corresponding DID documents, keyed by the given DID identifier or DID key URL.
+     */
+    Map<String, DidDocument> getDidDocuments(Collection<String> dids);
+
+    /**
+     * Retrieves the latest DID documents of the DIDs that made some proofs.
+     * A key URL that names a version newer than the cached document fetches that version;
+     * one that names an older version still gets the latest document, so proofs made with
+     * keys that have been rotated out since fail verification.
+     *
+     * @param didKeyUrls The DID key URLs of the proofs' verification methods, or DID identifiers.
+     * @return The latest DID documents, keyed by the given DID key URL or DID identifier.
+     */
+    Map<String, DidDocument> getLatestDidDocuments(Collection<String> didKeyUrls);
+
     /**
      * Gets the verification method for a given proof purpose from the provided DID document.
      *
@@ -44,4 +82,20 @@ public interface DidDocService {
      * @return The verification method as a string.
      */
     String getVerificationMethod(DidDocument didDocument, ProofPurpose proofPurpose);
+
+    /**
+     * Retrieves the key material of the verification method referenced by the given DID key URL.
+     * The key material may be served from a cache.
+     *
+     * @param keyUrl The DID key URL (e.g., did:omn:abc?versionId=1#assert).
+     * @return The key material of the verification method.
+     */
+    KeyMaterial getKeyMaterial(String keyUrl);
+
+    /**
+     * Remove every cached DID Document of a DID from this node.
+     *
+     * @param did The DID identifier or DID key URL.
+     */
+    void evictDidDocument(String did);
 }
@@ -16,25 +16,59 @@
 
 package org.omnione.did.verifier.v1.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.datamodel.data.KeyMaterial;
+import org.omnione.did.base.db.domain.DidDocumentCache;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.DidCacheProperty;
+import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.util.BaseCryptoUtil;
 import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
 import org.omnione.did.data.model.enums.did.ProofPurpose;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
  * Service for managing and retrieving DID Documents.
- * This class includes a cache mechanism to store DID Documents and a scheduler to periodically refresh the cache.
+ * This class includes a bounded cache to store DID Documents and a scheduler to periodically
+ * purge expired entries from the cache.
  *
- * The class uses a ScheduledExecutorService to refresh the cache every hour.
+ * Lookups that miss the cache go to the database cache table shared by all verifier nodes and then
+ * to the storage service; concurrent lookups of the same DID share one request, and DIDs that were
+ * not found are remembered for a short time. Rows of the shared table that have not been used within
+ * the maximum staleness are deleted by the same scheduler. See {@link DidDocCache} for how entries
+ * are refreshed and evicted.
  *
  * Example usage:
  * <pre>
@@ -44,34 +78,159 @@ import java.util.concurrent.TimeUnit;
  *
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DidDocServiceImpl implements DidDocService {
 
+    private static final String VERSION_ID_QUERY = "?versionId=";
+
     private final StorageService storageService;
-    private final DidDocCache didDocCache = new DidDocCache();
+    private final DidDocumentCacheQueryService didDocumentCacheQueryService;
+    private final ExecutorService didResolutionExecutor;
+    private final DidCacheProperty didCacheProperty;
+    private final DidDocCache didDocCache;
+    private final DidDocCacheSnapshot didDocCacheSnapshot;
+    private final KeyMaterialCache keyMaterialCache;
+    private final NegativeDidCache negativeDidCache;
+    private final Counter negativeHitCounter;
+    private final MultiGauge notFoundGauge;
+    private final ConcurrentHashMap<String, CompletableFuture<DidDocument>> inFlightResolutions = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final ScheduledExecutorService refreshExecutor;
+    private final AtomicInteger pendingRefreshes = new AtomicInteger();
+    private final boolean staleWhileRevalidate;
+    private final boolean sharedCacheEnabled;
+
+    public DidDocServiceImpl(StorageService storageService,
+                             DidDocumentCacheQueryService didDocumentCacheQueryService,
+                             DidCacheProperty didCacheProperty,
+                             MeterRegistry meterRegistry,
+                             ExecutorService didResolutionExecutor) {
+        this.storageService = storageService;
+        this.didDocumentCacheQueryService = didDocumentCacheQueryService;
+        this.didResolutionExecutor = didResolutionExecutor;
+        this.didCacheProperty = didCacheProperty;
+        this.sharedCacheEnabled = didCacheProperty.isSharedCacheEnabled();
+        this.staleWhileRevalidate =
+                didCacheProperty.getRefreshMode() == DidCacheProperty.RefreshMode.STALE_WHILE_REVALIDATE;
+        long maxStaleness = staleWhileRevalidate ? didCacheProperty.getMaxStaleness().toMillis() : 0;
+        OffHeapDocumentStore offHeapStore = null;
+        if (didCacheProperty.getStorage() == DidCacheProperty.Storage.OFF_HEAP) {
+            offHeapStore = new OffHeapDocumentStore(didCacheProperty.getOffHeapCapacity().toBytes(),
+                    (int) didCacheProperty.getOffHeapBlockSize().toBytes());
+            Gauge.builder("did.cache.offheap.used", offHeapStore, OffHeapDocumentStore::getUsedBytes)
+                    .description("Off-heap bytes used by cached DID Documents")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("did.cache.offheap.capacity", offHeapStore, OffHeapDocumentStore::getCapacityBytes)
+                    .description("Off-heap bytes available to cached DID Documents")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+        this.didDocCache = new DidDocCache(didCacheProperty.getMaxSize(), didCacheProperty.getTtl().toMillis(),
+                maxStaleness, offHeapStore);
+        this.didDocCacheSnapshot = didCacheProperty.isSnapshotEnabled()
+                ? new DidDocCacheSnapshot(Path.of(didCacheProperty.getSnapshotPath())) : null;
+        this.keyMaterialCache = new KeyMaterialCache(didCacheProperty.getMaxSize());
+        this.negativeDidCache = new NegativeDidCache(didCacheProperty.getNegativeMaxSize(), didCacheProperty.getNegativeTtl().toMillis());
+        this.negativeHitCounter = Counter.builder("did.resolution.negative.hits")
+                .description("DID lookups answered from the not-found cache")
+                .register(meterRegistry);
+        this.notFoundGauge = MultiGauge.builder("did.resolution.not.found")
+                .description("Lookups of the most requested DIDs that were not found, by rank")
+                .register(meterRegistry);
+        this.refreshExecutor = Executors.newScheduledThreadPool(Math.max(1, didCacheProperty.getRefreshThreads()));
+    }
 
     @PostConstruct
     public void init() {
-        scheduler.scheduleAtFixedRate(this::refreshAllDidDocuments, 0, 1, TimeUnit.HOURS);
+        if (didDocCacheSnapshot != null) {
+            restoreSnapshot();
+            long snapshotInterval = didCacheProperty.getSnapshotInterval().toMillis();
+            scheduler.scheduleAtFixedRate(this::saveSnapshot, snapshotInterval, snapshotInterval, TimeUnit.MILLISECONDS);
+        }
+        long cleanupInterval = didCacheProperty.getCleanupInterval().toMillis();
+        scheduler.scheduleAtFixedRate(didDocCache::evictExpired, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(negativeDidCache::evictExpired, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+        long negativeTtl = Math.max(1, didCacheProperty.getNegativeTtl().toMillis());
+        scheduler.scheduleAtFixedRate(this::publishNotFoundMetrics, negativeTtl, negativeTtl, TimeUnit.MILLISECONDS);
+        if (staleWhileRevalidate) {
+            scheduler.scheduleAtFixedRate(this::refreshStaleDidDocuments, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+        }
+        if (sharedCacheEnabled) {
+            scheduler.scheduleAtFixedRate(this::deleteStaleSharedDidDocuments, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        refreshExecutor.shutdownNow();
+        if (didDocCacheSnapshot != null) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Publish the miss counts of the DIDs that were looked up most often without being found.
+     * The metric is tagged by rank only, since DIDs are client input and would make the number
+     * of series unbounded; the DIDs are logged instead.
+     */
+    private void publishNotFoundMetrics() {
+        Map<String, Long> topMisses = negativeDidCache.getTopMisses(didCacheProperty.getNegativeMetricsSize());
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Long misses : topMisses.values()) {
+            rows.add(MultiGauge.Row.of(Tags.of("rank", String.valueOf(rows.size() + 1)), misses));
+        }
+        notFoundGauge.register(rows, true);
+        if (!topMisses.isEmpty()) {
+            log.info("Most requested DIDs not found: {}", topMisses);
+        }
+    }
+
+    /**
+     * Load the DID Documents of the last cache snapshot into the cache.
+     */
+    private void restoreSnapshot() {
+        long start = System.currentTimeMillis();
+        int restored = 0;
+        for (DidDocCacheSnapshot.Entry entry : didDocCacheSnapshot.read()) {
+            if (didDocCache.restoreDidDoc(entry.did(), entry.didDocument(), entry.timestamp(), entry.pinned())) {
+                restored++;
+            }
+        }
+        log.info("Restored {} DID Documents from the cache snapshot in {} ms", restored, System.currentTimeMillis() - start);
     }
 
     /**
-     * Get the DID Document for the given DID.
+     * Write the current content of the cache to the cache snapshot.
+     */
+    private void saveSnapshot() {
+        try {
+            int saved = didDocCacheSnapshot.write(didDocCache.getEntries());
+            log.debug("Saved {} DID Documents to the cache snapshot", saved);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save the DID Document cache snapshot: {}", e.toString());
+        }
+    }
+
+    /**
+     * Get the DID Document for the given DID or DID key URL.
      * If the document is not in the cache or is outdated, it is fetched from the source (e.g., blockchain).
+     * A key URL such as {@code did:omn:abc?versionId=1#assert} is cached per DID and version,
+     * so the key fragment does not create separate entries.
      *
-     * @param did The DID identifier.
+     * @param did The DID identifier or DID key URL.
      * @return The corresponding DID document.
      * @throws OpenDidException if the DID document cannot be retrieved.
      */
     @Override
     public DidDocument getDidDocument(String did) {
-        if (shouldUpdate(did)) {
-            updateDidDocument(did);
+        String cacheKey = toCacheKey(did);
+        DidDocument didDoc = findCachedDidDocument(cacheKey);
+        if (didDoc == null) {
+            didDoc = resolveDidDocument(cacheKey, false);
         }
 
-        DidDocument didDoc = didDocCache.getDidDoc(did);
         if (didDoc == null) {
             throw new OpenDidException(ErrorCode.DID_DOCUMENT_RETRIEVAL_FAILED);
         }
@@ -79,6 +238,122 @@ public class DidDocServiceImpl implements DidDocService {
         return didDoc;
     }
 
+    /**
+     * Start getting the DID Document for the given DID or DID key URL without blocking the caller.
+     * A cached document completes the future immediately; otherwise the lookup is shared with any
+     * other thread resolving the same DID.
+     *
+     * @param did The DID identifier or DID key URL.
+     * @return Future completed with the DID document, or with an OpenDidException if it cannot be retrieved.
+     */
+    @Override
+    public CompletableFuture<DidDocument> getDidDocumentAsync(String did) {
+        String cacheKey = toCacheKey(did);
+        DidDocument didDoc = findCachedDidDocument(cacheKey);
+        if (didDoc != null) {
+            return CompletableFuture.completedFuture(didDoc);
+        }
+        return resolveDidDocumentAsync(cacheKey, false).thenApply(resolved -> {
+            if (resolved == null) {
+                throw new OpenDidException(ErrorCode.DID_DOCUMENT_RETRIEVAL_FAILED);
+            }
+            return resolved;
+        });
+    }
+
+    /**
+     * Get the DID Documents for several DIDs or DID key URLs.
+     * Documents that are not in the cache are fetched from the source in a single batch.
+     *
+     * @param dids The DID identifiers or DID key URLs.
+     * @return The corresponding DID documents, keyed by the given DID or DID key URL.
+     * @throws OpenDidException if any of the DID documents cannot be retrieved.
+     */
+    @Override
+    public Map<String, DidDocument> getDidDocuments(Collection<String> dids) {
+        Map<String, DidDocument> didDocuments = new LinkedHashMap<>();
+        List<String> missingCacheKeys = new ArrayList<>();
+        for (String did : dids) {
+            String cacheKey = toCacheKey(did);
+            DidDocument didDoc = findCachedDidDocument(cacheKey);
+            if (didDoc == null) {
+                missingCacheKeys.add(cacheKey);
+            }
+            didDocuments.put(did, didDoc);
+        }
+
+        if (!missingCacheKeys.isEmpty()) {
+            Map<String, DidDocument> resolved = resolveDidDocuments(missingCacheKeys);
+            didDocuments.replaceAll((did, didDoc) -> didDoc != null ? didDoc : resolved.get(toCacheKey(did)));
+        }
+
+        if (didDocuments.containsValue(null)) {
+            throw new OpenDidException(ErrorCode.DID_DOCUMENT_RETRIEVAL_FAILED);
+        }
+
+        return didDocuments;
+    }
+
+    /**
+     * Get the latest DID Documents of the DIDs that made some proofs.
+     * The documents are looked up by plain DID, so proofs are verified against the latest document
+     * whatever version their key URL names. Only a key URL naming a version newer than the cached
+     * document, i.e. a DID updated since it was cached, looks up that version; it is usually pinned
+     * in the cache already or fetched once, and replaces the cached latest document.
+     *
+     * @param didKeyUrls The DID key URLs of the proofs' verification methods, or DIDs.
+     * @return The latest DID documents, keyed by the given DID key URL or DID.
+     * @throws OpenDidException if any of the DID documents cannot be retrieved.
+     */
+    @Override
+    public Map<String, DidDocument> getLatestDidDocuments(Collection<String> didKeyUrls) {
+        Map<String, String> dids = new LinkedHashMap<>();
+        for (String didKeyUrl : didKeyUrls) {
+            dids.put(didKeyUrl, toDid(didKeyUrl));
+        }
+        Map<String, DidDocument> latestDidDocuments = new HashMap<>(getDidDocuments(new LinkedHashSet<>(dids.values())));
+
+        Map<String, String> newerVersionKeys = new LinkedHashMap<>();
+        for (String didKeyUrl : didKeyUrls) {
+            String did = dids.get(didKeyUrl);
+            String versionKey = toCacheKey(didKeyUrl);
+            if (isNewerVersion(toVersionId(versionKey), latestDidDocuments.get(did).getVersionId())) {
+                newerVersionKeys.merge(did, versionKey,
+                        (key, otherKey) -> isNewerVersion(toVersionId(otherKey), toVersionId(key)) ? otherKey : key);
+            }
+        }
+        if (!newerVersionKeys.isEmpty()) {
+            Map<String, DidDocument> newerDidDocuments = getDidDocuments(newerVersionKeys.values());
+            newerVersionKeys.forEach((did, versionKey) -> latestDidDocuments.put(did, newerDidDocuments.get(versionKey)));
+        }
+
+        Map<String, DidDocument> didDocuments = new LinkedHashMap<>();
+        for (String didKeyUrl : didKeyUrls) {
+            didDocuments.put(didKeyUrl, latestDidDocuments.get(dids.get(didKeyUrl)));
+        }
+        return didDocuments;
+    }
+
+    /**
+     * Find the DID Document for the given cache key in the cache.
+     * In the stale-while-revalidate refresh mode a stale document is returned and refreshed in the background.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @return The cached DID document, or null if it has to be fetched.
+     */
+    private DidDocument findCachedDidDocument(String cacheKey) {
+        DidDocCache.CacheEntry entry = didDocCache.getEntry(cacheKey);
+        if (entry != null) {
+            if (!didDocCache.isStale(entry)) {
+                return entry.getDidDoc();
+            } else if (staleWhileRevalidate) {
+                scheduleRefresh(cacheKey, entry, 0);
+                return entry.getDidDoc();
+            }
+        }
+        return findCachedVersion(cacheKey);
+    }
+
     /**
      * Get the verification method for a given proof purpose from the provided DID document.
      * @param didDocument The DID document.
@@ -103,6 +378,55 @@ public class DidDocServiceImpl implements DidDocService {
 
         throw new OpenDidException(ErrorCode.INVALID_PROOF_PURPOSE);
     }
+
+    /**
+     * Get the key material of the verification method referenced by the given DID key URL.
+     * The DID Document is resolved through the DID Document cache; the verification method lookup
+     * and public key decoding are only done the first time a key URL is seen for that document.
+     *
+     * @param keyUrl The DID key URL (e.g., did:omn:abc?versionId=1#assert).
+     * @return The key material of the verification method.
+     * @throws OpenDidException if the DID document cannot be retrieved or has no such verification method.
+     */
+    @Override
+    public KeyMaterial getKeyMaterial(String keyUrl) {
+        DidDocument didDocument = getDidDocument(keyUrl);
+        KeyMaterial keyMaterial = keyMaterialCache.getKeyMaterial(keyUrl, didDocument);
+        if (keyMaterial != null) {
+            return keyMaterial;
+        }
+
+        int fragmentIndex = keyUrl.indexOf('#');
+        String keyId = (fragmentIndex < 0) ? null : keyUrl.substring(fragmentIndex + 1);
+        VerificationMethod verificationMethod =
+                (keyId == null) ? null : BaseCoreDidUtil.getVerificationMethod(didDocument, keyId);
+        if (verificationMethod == null) {
+            throw new OpenDidException(ErrorCode.VERIFICATION_METHOD_NOT_FOUND);
+        }
+
+        keyMaterial = BaseCryptoUtil.toKeyMaterial(keyUrl, verificationMethod);
+        keyMaterialCache.putKeyMaterial(keyUrl, didDocument, keyMaterial);
+        return keyMaterial;
+    }
+
+    /**
+     * Remove every cached DID Document of a DID from this node, including its pinned versions
+     * and a cached not-found result, so that the next lookup reaches the shared cache table
+     * or the storage service.
+     * Key material derived from the removed documents is derived again on next use.
+     *
+     * @param did The DID identifier or DID key URL.
+     */
+    @Override
+    public void evictDidDocument(String did) {
+        String cacheKey = toCacheKey(did);
+        int queryIndex = cacheKey.indexOf('?');
+        String plainDid = (queryIndex < 0) ? cacheKey : cacheKey.substring(0, queryIndex);
+        didDocCache.invalidateDid(plainDid);
+        negativeDidCache.invalidateDid(plainDid);
+        log.info("Evicted DID Document {} from the cache", plainDid);
+    }
+
     /**
      * Fetche the DID Document from the source (e.g., blockchain).
      *
@@ -113,31 +437,392 @@ public class DidDocServiceImpl implements DidDocService {
     /**
      * Update the DID Document in the cache for the given DID by fetching the latest version.
      * @param did The DID identifier.
+     * @return The fetched DID document.
      */
-    public void updateDidDocument(String did) {
-        DidDocument didDocument = storageService.findDidDoc(did);
-        didDocCache.putDidDoc(did, didDocument);
+    public DidDocument updateDidDocument(String did) {
+        return resolveDidDocument(toCacheKey(did), true);
     }
 
     /**
-     * Check if the DID Document for the given DID should be updated.
-     * Consider the document outdated if it was last updated more than an hour ago.
-     * @param did The DID identifier.
-     * @return true if the document should be updated, false otherwise.
+     * Schedule a background refresh of every stale entry that is still in use,
+     * spread over the configured jitter so that the storage service is not hit all at once.
+     */
+    private void refreshStaleDidDocuments() {
+        long jitter = didCacheProperty.getRefreshJitter().toMillis();
+        didDocCache.getStaleEntriesInUse().forEach((cacheKey, entry) ->
+                scheduleRefresh(cacheKey, entry, jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter) : 0));
+    }
+
+    /**
+     * Schedule a background refresh of a stale cache entry.
+     * Nothing is scheduled if the entry is already being refreshed, is backing off after a failure,
+     * or too many refreshes are pending.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @param entry The stale cache entry.
+     * @param delayMillis The delay before the refresh starts.
+     */
+    private void scheduleRefresh(String cacheKey, DidDocCache.CacheEntry entry, long delayMillis) {
+        if (!entry.tryStartRefresh(System.currentTimeMillis())) {
+            return;
+        }
+        if (pendingRefreshes.incrementAndGet() > didCacheProperty.getMaxPendingRefreshes()) {
+            pendingRefreshes.decrementAndGet();
+            entry.finishRefresh();
+            return;
+        }
+        try {
+            refreshExecutor.schedule(() -> refreshDidDocument(cacheKey, entry), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingRefreshes.decrementAndGet();
+            entry.finishRefresh();
+        }
+    }
+
+    /**
+     * Refresh a stale cache entry.
+     * On failure the stale document stays in the cache and the next refresh is postponed.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @param entry The stale cache entry.
+     */
+    private void refreshDidDocument(String cacheKey, DidDocCache.CacheEntry entry) {
+        try {
+            if (resolveDidDocument(cacheKey, true) == null) {
+                recordRefreshFailure(cacheKey, entry, "DID Document not found");
+            }
+        } catch (RuntimeException e) {
+            recordRefreshFailure(cacheKey, entry, e.getMessage());
+        } finally {
+            pendingRefreshes.decrementAndGet();
+            entry.finishRefresh();
+        }
+    }
+
+    private void recordRefreshFailure(String cacheKey, DidDocCache.CacheEntry entry, String reason) {
+        entry.recordRefreshFailure(System.currentTimeMillis(),
+                didCacheProperty.getRefreshBackoff().toMillis(),
+                didCacheProperty.getMaxRefreshBackoff().toMillis());
+        log.warn("Failed to refresh DID Document {} ({} consecutive failures): {}",
+                cacheKey, entry.getRefreshFailures(), reason);
+    }
+
+    /**
+     * Resolve the DID Document for the given cache key and wait for the outcome.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @param forceRefresh Whether to bypass a document that another thread has just cached.
+     * @return The resolved DID document.
+     * @throws OpenDidException if the DID document cannot be retrieved.
+     */
+    private DidDocument resolveDidDocument(String cacheKey, boolean forceRefresh) {
+        return awaitResolution(resolveDidDocumentAsync(cacheKey, forceRefresh));
+    }
+
+    /**
+     * Resolve the DID Document for the given cache key, sharing a single storage lookup
+     * between all threads that ask for the same DID at the same time.
+     * The thread that registers the lookup first starts it; the others get the same pending resolution.
+     * A DID that was recently not found fails right away unless a refresh is forced.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @param forceRefresh Whether to bypass a document that another thread has just cached.
+     * @return The pending resolution of the DID document.
+     */
+    private CompletableFuture<DidDocument> resolveDidDocumentAsync(String cacheKey, boolean forceRefresh) {
+        if (!forceRefresh && negativeDidCache.isNotFound(cacheKey)) {
+            negativeHitCounter.increment();
+            return CompletableFuture.failedFuture(new OpenDidException(ErrorCode.FAILED_TO_FIND_DID_DOC));
+        }
+
+        CompletableFuture<DidDocument> resolution = new CompletableFuture<>();
+        CompletableFuture<DidDocument> inFlight = inFlightResolutions.putIfAbsent(cacheKey, resolution);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        try {
+            DidDocument cached = forceRefresh ? null : didDocCache.getDidDoc(cacheKey);
+            if (cached != null) {
+                inFlightResolutions.remove(cacheKey, resolution);
+                resolution.complete(cached);
+                return resolution;
+            }
+            fetchDidDocumentAsync(cacheKey, forceRefresh).whenComplete((didDocument, throwable) -> {
+                Throwable failure = (throwable instanceof CompletionException && throwable.getCause() != null)
+                        ? throwable.getCause() : throwable;
+                try {
+                    if (failure == null && didDocument != null) {
+                        cacheDidDocument(cacheKey, didDocument);
+                    } else if (isNotFound(failure)) {
+                        negativeDidCache.recordNotFound(cacheKey);
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    inFlightResolutions.remove(cacheKey, resolution);
+                }
+                if (failure != null) {
+                    resolution.completeExceptionally(failure);
+                } else {
+                    resolution.complete(didDocument);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightResolutions.remove(cacheKey, resolution);
+            resolution.completeExceptionally(e);
+        }
+        return resolution;
+    }
+
+    /**
+     * Fetch the DID Document for the given cache key from the shared cache table or,
+     * if it is not there, from the storage service.
+     * A forced refresh skips the shared cache table.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @param forceRefresh Whether to fetch the document from the storage service.
+     * @return The pending fetch of the DID document.
+     */
+    private CompletableFuture<DidDocument> fetchDidDocumentAsync(String cacheKey, boolean forceRefresh) {
+        CompletableFuture<DidDocument> shared = (sharedCacheEnabled && !forceRefresh)
+                ? CompletableFuture.supplyAsync(() -> findSharedDidDocument(cacheKey), didResolutionExecutor)
+                : CompletableFuture.completedFuture(null);
+        return shared.thenCompose(didDocument -> {
+            if (didDocument != null) {
+                return CompletableFuture.completedFuture(didDocument);
+            }
+            return storageService.findDidDocAsync(cacheKey).thenApply(fetched -> {
+                if (sharedCacheEnabled && fetched != null) {
+                    saveSharedDidDocument(cacheKey, fetched);
+                }
+                return fetched;
+            });
+        });
+    }
+
+    /**
+     * Find the DID Document for the given cache key in the shared cache table.
+     * A versioned cache key matches the stored version; a plain DID matches the latest stored version
+     * if it was confirmed within the time-to-live.
+     * The shared cache table is only an optimization, so a failing database is treated as a miss.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @return The stored DID document, or null if it has to be fetched from the storage service.
+     */
+    private DidDocument findSharedDidDocument(String cacheKey) {
+        try {
+            int queryIndex = cacheKey.indexOf(VERSION_ID_QUERY);
+            Optional<DidDocumentCache> stored;
+            if (queryIndex < 0) {
+                Instant freshAfter = Instant.now().minus(didCacheProperty.getTtl());
+                stored = didDocumentCacheQueryService.findLatestByDid(cacheKey)
+                        .filter(record -> record.getLatestAt().isAfter(freshAfter));
+            } else {
+                stored = didDocumentCacheQueryService.findByDidAndVersionId(cacheKey.substring(0, queryIndex),
+                        cacheKey.substring(queryIndex + VERSION_ID_QUERY.length()));
+            }
+            if (stored.isEmpty()) {
+                return null;
+            }
+            DidDocument didDocument = new DidDocument();
+            didDocument.fromJson(stored.get().getDocument());
+            return didDocument;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read DID Document {} from the shared cache: {}", cacheKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write a DID Document fetched from the storage service to the shared cache table.
+     * Failures are logged and otherwise ignored.
+     *
+     * @param cacheKey The cache key the document was fetched for.
+     * @param didDocument The fetched DID document.
+     */
+    private void saveSharedDidDocument(String cacheKey, DidDocument didDocument) {
+        if (didDocument.getVersionId() == null) {
+            return;
+        }
+        int queryIndex = cacheKey.indexOf('?');
+        String did = (queryIndex < 0) ? cacheKey : cacheKey.substring(0, queryIndex);
+        try {
+            didDocumentCacheQueryService.saveDidDocument(did, didDocument.getVersionId(), didDocument.toJson(), queryIndex < 0);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write DID Document {} to the shared cache: {}", cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the DID Documents in the shared cache table that were neither fetched nor confirmed
+     * as the latest version within the maximum staleness, so that the table does not grow with every DID version.
+     * Failures are logged and the cleanup is retried on the next run.
+     */
+    private void deleteStaleSharedDidDocuments() {
+        try {
+            int deleted = didDocumentCacheQueryService.deleteStaleDidDocuments(
+                    Instant.now().minus(didCacheProperty.getMaxStaleness()));
+            if (deleted > 0) {
+                log.debug("Deleted {} stale DID Documents from the shared cache", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete stale DID Documents from the shared cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolve the DID Documents for several cache keys concurrently.
+     * Each cache key is resolved on its own so that a DID that is not found only fails its own lookup
+     * and is remembered in the not-found cache; cache keys that another thread is already resolving
+     * share its outcome.
+     *
+     * @param cacheKeys The cache keys of the DIDs.
+     * @return The resolved DID documents, keyed by cache key.
+     * @throws OpenDidException if any of the DID documents cannot be retrieved.
+     */
+    private Map<String, DidDocument> resolveDidDocuments(Collection<String> cacheKeys) {
+        Map<String, CompletableFuture<DidDocument>> resolutions = new LinkedHashMap<>();
+        for (String cacheKey : cacheKeys) {
+            resolutions.computeIfAbsent(cacheKey, key -> resolveDidDocumentAsync(key, false));
+        }
+
+        Map<String, DidDocument> didDocuments = new LinkedHashMap<>();
+        resolutions.forEach((cacheKey, resolution) -> didDocuments.put(cacheKey, awaitResolution(resolution)));
+        return didDocuments;
+    }
+
+    /**
+     * Checks if a failed DID resolution means that the DID does not exist, as opposed to
+     * the storage service being unavailable.
+     */
+    private boolean isNotFound(Throwable failure) {
+        return failure == null
+                || (failure instanceof OpenDidException openDidException
+                        && openDidException.getErrorCode() == ErrorCode.FAILED_TO_FIND_DID_DOC);
+    }
+
+    /**
+     * Find the DID Document version referenced by a versioned cache key among the latest
+     * document cached for its DID, and pin it when it matches.
+     *
+     * @param cacheKey The cache key of the DID.
+     * @return The matching DID document, or null if the version is not cached.
      */
-    private boolean shouldUpdate(String did) {
-        long currentTime = System.currentTimeMillis();
-        long lastUpdate = didDocCache.getTimestamp(did);
-        return (currentTime - lastUpdate) > TimeUnit.HOURS.toMillis(1);
+    private DidDocument findCachedVersion(String cacheKey) {
+        int queryIndex = cacheKey.indexOf(VERSION_ID_QUERY);
+        if (queryIndex < 0) {
+            return null;
+        }
+        String versionId = cacheKey.substring(queryIndex + VERSION_ID_QUERY.length());
+        DidDocCache.CacheEntry latest = didDocCache.getEntry(cacheKey.substring(0, queryIndex));
+        if (latest == null || !versionId.equals(latest.getVersionId())) {
+            return null;
+        }
+        DidDocument didDocument = latest.getDidDoc();
+        if (didDocument != null) {
+            didDocCache.putPinnedDidDoc(cacheKey, didDocument);
+        }
+        return didDocument;
     }
 
     /**
-     * Refresh all DID Documents in the cache by fetching the latest versions.
+     * Store a DID Document fetched from the storage service.
+     * The document is pinned under its own version. A lookup by plain DID is also cached with the
+     * time-to-live, and the latest cached document of the DID is replaced when a newer version
+     * was fetched.
+     *
+     * @param cacheKey The cache key the document was fetched for.
+     * @param didDocument The fetched DID document.
      */
-    private void refreshAllDidDocuments() {
-        for (String did : didDocCache.getAllDids()) {
-            updateDidDocument(did);
+    private void cacheDidDocument(String cacheKey, DidDocument didDocument) {
+        negativeDidCache.invalidate(cacheKey);
+        int queryIndex = cacheKey.indexOf('?');
+        String did = (queryIndex < 0) ? cacheKey : cacheKey.substring(0, queryIndex);
+        String versionId = didDocument.getVersionId();
+        String versionKey = (versionId == null) ? null : did + VERSION_ID_QUERY + versionId;
+        if (versionKey != null) {
+            didDocCache.putPinnedDidDoc(versionKey, didDocument);
         }
+
+        if (cacheKey.equals(did)) {
+            didDocCache.putDidDoc(did, didDocument);
+            return;
+        }
+        if (!cacheKey.equals(versionKey)) {
+            // The storage service answered with another version than requested, so it must not be pinned
+            didDocCache.putDidDoc(cacheKey, didDocument);
+        }
+        DidDocCache.CacheEntry latest = didDocCache.getEntry(did);
+        if (latest != null && isNewerVersion(versionId, latest.getVersionId())) {
+            didDocCache.putDidDoc(did, didDocument);
+        }
+    }
+
+    /**
+     * Checks if a DID Document version is newer than another one.
+     * Version IDs that are missing or not numeric are never considered newer.
+     */
+    private boolean isNewerVersion(String versionId, String otherVersionId) {
+        if (versionId == null || otherVersionId == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(versionId) > Long.parseLong(otherVersionId);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait for a DID resolution and unwrap its failure.
+     *
+     * @param resolution The pending resolution.
+     * @return The resolved DID document.
+     * @throws OpenDidException if the resolution failed.
+     */
+    private DidDocument awaitResolution(CompletableFuture<DidDocument> resolution) {
+        try {
+            return resolution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof OpenDidException openDidException) {
+                throw openDidException;
+            }
+            log.error("Failed to resolve DID Document: {}", e.getMessage());
+            throw new OpenDidException(ErrorCode.DID_DOCUMENT_RETRIEVAL_FAILED);
+        }
+    }
+
+    /**
+     * Convert a DID or DID key URL into the key used by the cache.
+     * The key fragment is dropped, while the versionId query is kept.
+     * @param didKeyUrl The DID identifier or DID key URL.
+     * @return The cache key.
+     */
+    private String toCacheKey(String didKeyUrl) {
+        int fragmentIndex = didKeyUrl.indexOf('#');
+        return (fragmentIndex < 0) ? didKeyUrl : didKeyUrl.substring(0, fragmentIndex);
+    }
+
+    /**
+     * Convert a DID or DID key URL into the plain DID.
+     * @param didKeyUrl The DID identifier or DID key URL.
+     * @return The DID without query and fragment.
+     */
+    private String toDid(String didKeyUrl) {
+        String cacheKey = toCacheKey(didKeyUrl);
+        int queryIndex = cacheKey.indexOf('?');
+        return (queryIndex < 0) ? cacheKey : cacheKey.substring(0, queryIndex);
+    }
+
+    /**
+     * Get the version ID named by a cache key.
+     * @param cacheKey The cache key of the DID.
+     * @return The version ID, or null if the cache key names no version.
+     */
+    private String toVersionId(String cacheKey) {
+        int queryIndex = cacheKey.indexOf(VERSION_ID_QUERY);
+        return (queryIndex < 0) ? null : cacheKey.substring(queryIndex + VERSION_ID_QUERY.length());
     }
 
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import org.omnione.did.base.db.domain.DidDocumentCache;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Service interface for handling the DID Documents shared between verifier nodes.
+ */
+public interface DidDocumentCacheQueryService {
+    /**
+     * Finds a DID Document by DID and version ID.
+     *
+     * @param did DID.
+     * @param versionId Version ID of the DID Document.
+     * @return Found DID Document record, if any.
+     */
+    Optional<DidDocumentCache> findByDidAndVersionId(String did, String versionId);
+
+    /**
+     * Finds the DID Document most recently confirmed as the latest version of a DID.
+     *
+     * @param did DID.
+     * @return Found DID Document record, if any.
+     */
+    Optional<DidDocumentCache> findLatestByDid(String did);
+
+    /**
+     * Saves a DID Document fetched from the storage service.
+     *
+     * @param did DID.
+     * @param versionId Version ID of the DID Document.
+     * @param document DID Document as JSON.
+     * @param latest Whether the document was fetched as the latest version of the DID.
+     */
+    void saveDidDocument(String did, String versionId, String document, boolean latest);
+
+    /**
+     * Marks the stored versions of a DID as no longer confirmed as the latest,
+     * so that the next lookup of the DID goes to the storage service.
+     *
+     * @param did DID.
+     */
+    void clearLatest(String did);
+
+    /**
+     * Deletes the DID Documents that were neither fetched nor confirmed as the latest version since the cutoff.
+     *
+     * @param cutoff The time before which records are deleted.
+     * @return The number of deleted records.
+     */
+    int deleteStaleDidDocuments(Instant cutoff);
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.db.domain.DidDocumentCache;
+import org.omnione.did.base.db.repository.DidDocumentCacheRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Handles saving and querying the DID Documents shared between verifier nodes.
+ * This class uses the DidDocumentCacheRepository to interact with the database.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DidDocumentCacheQueryServiceImpl implements DidDocumentCacheQueryService {
+
+    private final DidDocumentCacheRepository didDocumentCacheRepository;
+
+    /**
+     * Finds a DID Document by DID and version ID.
+     *
+     * @param did DID.
+     * @param versionId Version ID of the DID Document.
+     * @return Found DID Document record, if any.
+     */
+    @Override
+    public Optional<DidDocumentCache> findByDidAndVersionId(String did, String versionId) {
+        return didDocumentCacheRepository.findByDidAndVersionId(did, versionId);
+    }
+
+    /**
+     * Finds the DID Document most recently confirmed as the latest version of a DID.
+     *
+     * @param did DID.
+     * @return Found DID Document record, if any.
+     */
+    @Override
+    public Optional<DidDocumentCache> findLatestByDid(String did) {
+        return didDocumentCacheRepository.findFirstByDidAndLatestAtIsNotNullOrderByLatestAtDesc(did);
+    }
+
+    /**
+     * Saves a DID Document fetched from the storage service.
+     * A DID version that is already stored is not written again; only the time it was confirmed
+     * as the latest version is updated. If another node stores the same version at the same time,
+     * its record is kept.
+     *
+     * @param did DID.
+     * @param versionId Version ID of the DID Document.
+     * @param document DID Document as JSON.
+     * @param latest Whether the document was fetched as the latest version of the DID.
+     */
+    @Override
+    public void saveDidDocument(String did, String versionId, String document, boolean latest) {
+        Instant now = Instant.now();
+        Optional<DidDocumentCache> existing = didDocumentCacheRepository.findByDidAndVersionId(did, versionId);
+        if (existing.isPresent()) {
+            if (latest) {
+                existing.get().setLatestAt(now);
+                didDocumentCacheRepository.save(existing.get());
+            }
+            return;
+        }
+
+        try {
+            didDocumentCacheRepository.save(DidDocumentCache.builder()
+                    .did(did)
+                    .versionId(versionId)
+                    .document(document)
+                    .fetchedAt(now)
+                    .latestAt(latest ? now : null)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("DID Document {} version {} was already stored by another node", did, versionId);
+        }
+    }
+
+    /**
+     * Marks the stored versions of a DID as no longer confirmed as the latest,
+     * so that the next lookup of the DID goes to the storage service.
+     *
+     * @param did DID.
+     */
+    @Override
+    @Transactional
+    public void clearLatest(String did) {
+        didDocumentCacheRepository.clearLatestAtByDid(did);
+    }
+
+    /**
+     * Deletes the DID Documents that were neither fetched nor confirmed as the latest version since the cutoff.
+     *
+     * @param cutoff The time before which records are deleted.
+     * @return The number of deleted records.
+     */
+    @Override
+    @Transactional
+    public int deleteStaleDidDocuments(Instant cutoff) {
+        return didDocumentCacheRepository.deleteStaleBefore(cutoff);
+    }
+}
@@ -21,14 +21,12 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.omnione.did.base.datamodel.data.VerifyOfferPayload;
 import org.omnione.did.base.datamodel.data.VpPolicy;
+import org.omnione.did.base.datamodel.enums.PresentMode;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.base.property.VerifierProperty;
-import org.omnione.did.data.model.profile.verify.VerifyProcess;
-import org.omnione.did.data.model.profile.verify.VerifyProfile;
-import org.omnione.did.data.model.provider.ProviderDetail;
+import org.omnione.did.data.model.profile.Filter;
 import org.omnione.did.verifier.v1.dto.RequestOfferReqDto;
 import org.omnione.did.verifier.v1.dto.VerifyOfferResult;
 import org.springframework.beans.factory.annotation.Value;
@@ -37,15 +35,31 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for loading VP policies and verification offer payloads from JSON files.
  *
  * This service loads and caches policies and payloads from a specified directory,
  * and provides methods to retrieve them by policy ID or by offer data.
+ * The cached policies are immutable snapshots held in an index that is never modified once published;
+ * loading builds a new index and swaps it in, so readers need no locking and never see a half-loaded set.
+ * Besides the policies by ID, the index holds the policies by their case-insensitive device, service and
+ * mode, so that finding the policy of an offer takes the same time however many policies are loaded.
+ *
+ * Policies can be reloaded while the verifier is running. A reload only parses the files whose
+ * modification time or size changed since the previous load. A file that cannot be parsed or does not
+ * hold a valid policy keeps the policy it held before, so a half-written file never takes a policy away.
  */
 @Service
 @Slf4j
@@ -54,11 +68,39 @@ public class FileLoaderService {
 
     private final ObjectMapper objectMapper;
     private final VerifierProperty verifierProperty;
-    private final Map<String, VpPolicy> policyCache = new HashMap<>();
+    private volatile PolicyIndex policyIndex = new PolicyIndex(Map.of(), Map.of(), Map.of());
+    private Map<Path, LoadedFile> loadedFiles = Map.of();
 
     @Value("${verifier.sample-path}")
     private String samplePath;
 
+    /**
+     * The loaded policies, by policy ID and by offer key, and their compiled filters by the filters' JSON.
+     */
+    private record PolicyIndex(Map<String, VpPolicySnapshot> byPolicyId, Map<OfferKey, VpPolicySnapshot> byOffer,
+                               Map<String, PresentationFilter> filtersByJson) {
+    }
+
+    /**
+     * The device, service and mode of an offer, with device and service in lower case.
+     * A missing device or service is kept as null and matches only a missing one.
+     */
+    private record OfferKey(String device, String service, PresentMode mode) {
+        static OfferKey of(String device, String service, PresentMode mode) {
+            return new OfferKey(toLowerCase(device), toLowerCase(service), mode);
+        }
+
+        private static String toLowerCase(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+
+    /**
+     * A policy file as it was when it was last loaded.
+     */
+    private record LoadedFile(FileTime lastModifiedTime, long size, VpPolicySnapshot policy) {
+    }
+
     /**
      * Loads VP policies and their payloads from JSON files located in the configured sample path.
      * This method is called after the service is constructed to populate the cache.
@@ -66,34 +108,142 @@ public class FileLoaderService {
      */
     @PostConstruct
     public void loadPolicies() {
+        reloadPolicies();
+        log.info("Loaded {} policies into cache", policyIndex.byPolicyId().size());
+    }
+
+    /**
+     * Reloads the VP policies from the configured sample path and swaps them in.
+     * The policies are left as they are if the sample path cannot be read.
+     *
+     * @return The IDs of the policies that were added, changed or removed.
+     * @throws OpenDidException if an error occurs while reading the sample path.
+     */
+    public synchronized Set<String> reloadPolicies() {
+        Map<Path, LoadedFile> files = new LinkedHashMap<>();
+        for (Path file : listJsonFiles()) {
+            LoadedFile loadedFile = loadFile(file, loadedFiles.get(file));
+            if (loadedFile != null) {
+                files.put(file, loadedFile);
+            }
+        }
+
+        Map<String, VpPolicySnapshot> policies = new LinkedHashMap<>();
+        for (Map.Entry<Path, LoadedFile> file : files.entrySet()) {
+            VpPolicySnapshot policy = file.getValue().policy();
+            VpPolicySnapshot duplicate = policies.putIfAbsent(policy.getPolicyId(), policy);
+            if (duplicate != null) {
+                log.error("Ignoring VpPolicy {} in {}: the policy ID is already in use", policy.getPolicyId(), file.getKey());
+            }
+        }
+
+        Set<String> changedPolicyIds = new HashSet<>();
+        Map<String, VpPolicySnapshot> previousPolicies = policyIndex.byPolicyId();
+        for (Map.Entry<String, VpPolicySnapshot> policy : policies.entrySet()) {
+            if (previousPolicies.get(policy.getKey()) != policy.getValue()) {
+                changedPolicyIds.add(policy.getKey());
+            }
+        }
+        for (String policyId : previousPolicies.keySet()) {
+            if (!policies.containsKey(policyId)) {
+                changedPolicyIds.add(policyId);
+            }
+        }
+
+        loadedFiles = files;
+        if (!changedPolicyIds.isEmpty()) {
+            policyIndex = buildIndex(policies);
+        }
+        return changedPolicyIds;
+    }
+
+    private PolicyIndex buildIndex(Map<String, VpPolicySnapshot> policies) {
+        Map<OfferKey, VpPolicySnapshot> byOffer = new HashMap<>();
+        Map<String, PresentationFilter> filtersByJson = new HashMap<>();
+        for (VpPolicySnapshot policy : policies.values()) {
+            if (policy.getFilterJson() != null) {
+                filtersByJson.putIfAbsent(policy.getFilterJson(), policy.getPresentationFilter());
+            }
+            if (policy.getMode() == null) {
+                continue;
+            }
+            VpPolicySnapshot duplicate = byOffer.putIfAbsent(
+                    OfferKey.of(policy.getDevice(), policy.getService(), policy.getMode()), policy);
+            if (duplicate != null) {
+                log.warn("VpPolicy {} has the same device, service and mode as VpPolicy {}; offers use {}",
+                        policy.getPolicyId(), duplicate.getPolicyId(), duplicate.getPolicyId());
+            }
+        }
+        return new PolicyIndex(Collections.unmodifiableMap(policies), Collections.unmodifiableMap(byOffer),
+                Collections.unmodifiableMap(filtersByJson));
+    }
+
+    private List<Path> listJsonFiles() {
+        List<Path> files = new ArrayList<>();
         try {
-            Path startPath = Paths.get(samplePath);
-            Files.walkFileTree(startPath, new SimpleFileVisitor<Path>() {
+            Files.walkFileTree(Paths.get(samplePath), new SimpleFileVisitor<Path>() {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
                     if (isJsonFile(file)) {
-                        processJsonFile(file);
+                        files.add(file);
                     }
                     return FileVisitResult.CONTINUE;
                 }
             });
-            log.info("Loaded {} policies into cache", policyCache.size());
         } catch (IOException e) {
             log.error("Error loading policies: {}", e.getMessage());
             throw new OpenDidException(ErrorCode.VP_POLICY_READ_ERROR);
         }
+        // Visit the files in a stable order, so that the same file wins when two files share a policy ID
+        Collections.sort(files);
+        return files;
     }
 
     private boolean isJsonFile(Path file) {
         return file.toString().toLowerCase().endsWith(".json");
     }
 
-    private void processJsonFile(Path file) {
+    /**
+     * Load a policy file, reusing the previously loaded policy if the file did not change
+     * or no longer holds a valid policy.
+     *
+     * @return The loaded file, or null if the file has never held a valid policy.
+     */
+    private LoadedFile loadFile(Path file, LoadedFile previous) {
         try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (previous != null && previous.lastModifiedTime().equals(attrs.lastModifiedTime())
+                    && previous.size() == attrs.size()) {
+                return previous;
+            }
             VpPolicy vpPolicy = objectMapper.readValue(file.toFile(), VpPolicy.class);
-            policyCache.put(vpPolicy.getPolicyId(), vpPolicy);
-        } catch (IOException e) {
+            validatePolicy(vpPolicy);
+            if (previous != null) {
+                log.info("Reloaded VpPolicy {} from {}", vpPolicy.getPolicyId(), file);
+            }
+            return new LoadedFile(attrs.lastModifiedTime(), attrs.size(), VpPolicySnapshot.of(vpPolicy, verifierProperty));
+        } catch (IOException | IllegalArgumentException e) {
             log.error("Error processing JSON file {}: {}", file, e.getMessage());
+            return previous;
+        }
+    }
+
+    /**
+     * Check that a policy holds everything that offers and VP profiles are built from.
+     *
+     * @throws IllegalArgumentException if the policy is incomplete.
+     */
+    private void validatePolicy(VpPolicy vpPolicy) {
+        if (StringUtils.isBlank(vpPolicy.getPolicyId())) {
+            throw new IllegalArgumentException("policyId is missing");
+        }
+        if (vpPolicy.getPayload() == null || vpPolicy.getPayload().getMode() == null) {
+            throw new IllegalArgumentException("payload or payload.mode is missing");
+        }
+        if (vpPolicy.getProfile() == null || vpPolicy.getProfile().getProfile() == null
+                || vpPolicy.getProfile().getProfile().getProcess() == null
+                || vpPolicy.getProfile().getProfile().getProcess().getReqE2e() == null) {
+            throw new IllegalArgumentException("profile.profile.process.reqE2e is missing");
         }
     }
 
@@ -101,37 +251,55 @@ public class FileLoaderService {
      * Retrieves a VP policy by its policy ID from the cache.
      *
      * @param policyId The ID of the policy to retrieve.
-     * @return The VP policy corresponding to the given policy ID.
+     * @return The VP policy snapshot corresponding to the given policy ID.
      * @throws OpenDidException if the policy is not found in the cache.
      */
-    public VpPolicy getPolicyById(String policyId) {
-        VpPolicy policy = policyCache.get(policyId);
+    public VpPolicySnapshot getPolicyById(String policyId) {
+        VpPolicySnapshot policy = policyIndex.byPolicyId().get(policyId);
         if (policy == null) {
             log.error("VpPolicy not found for policyId: {}", policyId);
             throw new OpenDidException(ErrorCode.VP_POLICY_NOT_FOUND);
         }
-        ProviderDetail providerDetail = policy.getProfile().getProfile().getVerifier();
-        providerDetail.setCertVcRef(verifierProperty.getCertVcRef());
-        providerDetail.setDid(verifierProperty.getDid());
-        providerDetail.setRef(verifierProperty.getRef());
-        VerifyProcess process = policy.getProfile().getProfile().getProcess();
-        process.setEndpoints(verifierProperty.getVerifierEndPoints());
-
         return policy;
     }
 
+    /**
+     * Returns the compiled form of the filter of a VP profile.
+     * If a loaded policy has the same filter, the filter compiled when that policy was loaded is returned;
+     * otherwise, e.g. when the policy was changed after the profile was issued, the filter is compiled.
+     *
+     * @param filter The filter of the VP profile, or null.
+     * @return The compiled filter.
+     */
+    public PresentationFilter getPresentationFilter(Filter filter) {
+        if (filter == null) {
+            return PresentationFilter.MATCH_ALL;
+        }
+        PresentationFilter presentationFilter = policyIndex.filtersByJson().get(filter.toJson());
+        return presentationFilter != null ? presentationFilter : PresentationFilter.compile(filter);
+    }
+
+    /**
+     * Retrieves all VP policies in the cache.
+     *
+     * @return The loaded VP policy snapshots.
+     */
+    public Collection<VpPolicySnapshot> getPolicies() {
+        return policyIndex.byPolicyId().values();
+    }
+
     /**
      * Retrieves a VP policy from the cache by matching offer data.
      *
      * @param requestOfferReqDto Request offer data containing device, service, and mode.
-     * @return The VP policy matching the given offer data.
+     * @return The ID of the matching VP policy with a new copy of its offer payload.
      * @throws OpenDidException if no matching policy is found.
      */
     public VerifyOfferResult getPolicyByOfferData(RequestOfferReqDto requestOfferReqDto) {
-        for (VpPolicy vpPolicy : policyCache.values()) {
-            if (matchesPolicy(vpPolicy, requestOfferReqDto)) {
-                return buildVerifyOfferResult(vpPolicy);
-            }
+        VpPolicySnapshot vpPolicy = policyIndex.byOffer().get(OfferKey.of(
+                requestOfferReqDto.getDevice(), requestOfferReqDto.getService(), requestOfferReqDto.getMode()));
+        if (vpPolicy != null) {
+            return buildVerifyOfferResult(vpPolicy);
         }
 
         log.error("VpPolicy not found for mode: {}, service: {}, device: {}",
@@ -139,19 +307,10 @@ public class FileLoaderService {
         throw new OpenDidException(ErrorCode.VP_POLICY_NOT_FOUND);
     }
 
-    private boolean matchesPolicy(VpPolicy vpPolicy, RequestOfferReqDto requestOfferReqDto) {
-        VerifyOfferPayload payload = vpPolicy.getPayload();
-        return StringUtils.equalsIgnoreCase(payload.getDevice(), requestOfferReqDto.getDevice())
-                && StringUtils.equalsIgnoreCase(payload.getService(), requestOfferReqDto.getService())
-                && StringUtils.equalsIgnoreCase(String.valueOf(payload.getMode()), String.valueOf(requestOfferReqDto.getMode()));
-    }
-
-    private VerifyOfferResult buildVerifyOfferResult(VpPolicy vpPolicy) {
-        VerifyOfferPayload offerPayload = vpPolicy.getPayload();
-        offerPayload.setEndpoints(verifierProperty.getVerifierEndPoints());
+    private VerifyOfferResult buildVerifyOfferResult(VpPolicySnapshot vpPolicy) {
         return VerifyOfferResult.builder()
                 .vpPolicyId(vpPolicy.getPolicyId())
-                .payload(vpPolicy.getPayload())
+                .payload(vpPolicy.newOfferPayload())
                 .build();
     }
 }
\ No newline at end of file
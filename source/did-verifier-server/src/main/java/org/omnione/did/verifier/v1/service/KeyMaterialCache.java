@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import org.omnione.did.base.datamodel.data.KeyMaterial;
+import org.omnione.did.data.model.did.DidDocument;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache for storing the key material of verification methods, keyed by DID key URL
+ * (e.g., {@code did:omn:abc?versionId=1#assert}).
+ *
+ * Each entry remembers the DID Document it was derived from. An entry is only returned for
+ * the same DID and version, or for the same document instance if the document has no version,
+ * so key material is derived again as soon as the DID Document cache hands out another version.
+ * Matching by version keeps entries valid for documents that are deserialized on every cache hit.
+ * The cache is cleared when it grows beyond its maximum size.
+ */
+public class KeyMaterialCache {
+    private final ConcurrentHashMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public KeyMaterialCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    private static class CacheEntry {
+        private final String did;
+        private final String versionId;
+        private final DidDocument didDocument;
+        private final KeyMaterial keyMaterial;
+
+        private CacheEntry(DidDocument didDocument, KeyMaterial keyMaterial) {
+            this.did = didDocument.getId();
+            this.versionId = didDocument.getVersionId();
+            this.didDocument = (versionId == null) ? didDocument : null;
+            this.keyMaterial = keyMaterial;
+        }
+
+        private boolean isDerivedFrom(DidDocument other) {
+            if (versionId == null) {
+                return didDocument == other;
+            }
+            return versionId.equals(other.getVersionId()) && Objects.equals(did, other.getId());
+        }
+    }
+
+    /**
+     * Retrieve the key material for the given key URL if it was derived from the given DID Document.
+     */
+    public KeyMaterial getKeyMaterial(String keyUrl, DidDocument didDocument) {
+        CacheEntry entry = cache.get(keyUrl);
+        if (entry == null || !entry.isDerivedFrom(didDocument)) {
+            return null;
+        }
+        return entry.keyMaterial;
+    }
+
+    /**
+     * Store the key material derived from the given DID Document for the given key URL.
+     */
+    public void putKeyMaterial(String keyUrl, DidDocument didDocument, KeyMaterial keyMaterial) {
+        if (cache.size() >= maxSize && !cache.containsKey(keyUrl)) {
+            cache.clear();
+        }
+        cache.put(keyUrl, new CacheEntry(didDocument, keyMaterial));
+    }
+
+    /**
+     * Return the number of entries currently stored in the cache.
+     */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of DIDs that the storage service reported as not found.
+ * An entry is kept for a short time-to-live, during which lookups of the DID are answered
+ * without asking the storage service again.
+ *
+ * Every DID also carries a miss counter that keeps growing while the DID is requested, across
+ * renewals of its entry, until the entry is purged. When the cache grows beyond its maximum size,
+ * expired entries are dropped first and the cache is cleared if it is still full.
+ */
+public class NegativeDidCache {
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+
+    public NegativeDidCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    private static class Entry {
+        private final AtomicLong misses = new AtomicLong();
+        private volatile long expiresAt;
+
+        private Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    /**
+     * Checks if the given DID is known not to exist, and counts the lookup as a miss if so.
+     */
+    public boolean isNotFound(String did) {
+        Entry entry = cache.get(did);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return false;
+        }
+        entry.misses.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Remember that the given DID was not found, for the time-to-live from now.
+     */
+    public void recordNotFound(String did) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        Entry entry = cache.computeIfAbsent(did, key -> new Entry(expiresAt));
+        entry.expiresAt = expiresAt;
+        entry.misses.incrementAndGet();
+        if (cache.size() > maxSize) {
+            evictExpired();
+            if (cache.size() > maxSize) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Forget the given DID, e.g., because a DID Document was found for it.
+     */
+    public void invalidate(String did) {
+        cache.remove(did);
+    }
+
+    /**
+     * Forget the given DID and all of its versions.
+     */
+    public void invalidateDid(String did) {
+        String versionPrefix = did + "?";
+        cache.keySet().removeIf(key -> key.equals(did) || key.startsWith(versionPrefix));
+    }
+
+    /**
+     * Remove all entries whose time-to-live has elapsed, together with their miss counters.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.entrySet().removeIf(e -> e.getValue().isExpired(now));
+    }
+
+    /**
+     * Return the DIDs with the most misses, ordered by descending miss count.
+     *
+     * @param limit The maximum number of DIDs to return.
+     * @return The miss counts, keyed by DID.
+     */
+    public Map<String, Long> getTopMisses(int limit) {
+        Map<String, Long> topMisses = new LinkedHashMap<>();
+        cache.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().misses.get()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(e -> topMisses.put(e.getKey(), e.getValue()));
+        return topMisses;
+    }
+
+    /**
+     * Return the number of entries currently stored in the cache.
+     */
+    public int size() {
+        return cache.size();
+    }
+}
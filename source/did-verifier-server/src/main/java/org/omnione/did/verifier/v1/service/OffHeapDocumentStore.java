@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A fixed-capacity store for serialized documents in off-heap memory.
+ *
+ * The memory is a set of direct buffers, allocated on demand up to the configured capacity and divided
+ * into blocks of equal size. A stored document occupies as many blocks as it needs, in any order;
+ * the returned {@link Slot} is the only on-heap part of it and lists its blocks. Freed blocks are reused
+ * by later documents, so the store never allocates more than its capacity.
+ *
+ * Loading a slot and freeing it may happen concurrently: a slot that was freed before or while it is
+ * loaded reads as absent rather than returning the bytes of another document.
+ *
+ * Example usage:
+ * <pre>
+ *     OffHeapDocumentStore store = new OffHeapDocumentStore(256L * 1024 * 1024, 512);
+ *     OffHeapDocumentStore.Slot slot = store.store(bytes);
+ *     byte[] loaded = store.load(slot);
+ *     store.free(slot);
+ * </pre>
+ */
+public class OffHeapDocumentStore {
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int blockSize;
+    private final int blocksPerChunk;
+    private final int totalBlocks;
+    private final ByteBuffer[] chunks;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private int nextUnusedBlock;
+
+    public OffHeapDocumentStore(long capacityBytes, int blockSize) {
+        if (blockSize <= 0 || blockSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("blockSize must be between 1 and " + MAX_CHUNK_SIZE + ": " + blockSize);
+        }
+        long blocks = capacityBytes / blockSize;
+        if (blocks <= 0 || blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity must hold between 1 and " + Integer.MAX_VALUE + " blocks: " + capacityBytes);
+        }
+        this.blockSize = blockSize;
+        this.totalBlocks = (int) blocks;
+        this.blocksPerChunk = Math.min(MAX_CHUNK_SIZE / blockSize, totalBlocks);
+        this.chunks = new ByteBuffer[(totalBlocks + blocksPerChunk - 1) / blocksPerChunk];
+        this.freeBlocks = new int[totalBlocks];
+    }
+
+    /**
+     * The blocks holding one stored document.
+     */
+    public static final class Slot {
+        private final int[] blocks;
+        private final int length;
+        private volatile boolean freed;
+
+        private Slot(int[] blocks, int length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    /**
+     * Store the given bytes.
+     *
+     * @param bytes The serialized document.
+     * @return The slot holding the bytes, or null if there is not enough free space.
+     */
+    public Slot store(byte[] bytes) {
+        int needed = blocksFor(bytes.length);
+        int[] blocks = new int[needed];
+        lock.writeLock().lock();
+        try {
+            if (freeCount + (totalBlocks - nextUnusedBlock) < needed) {
+                return null;
+            }
+            for (int i = 0; i < needed; i++) {
+                blocks[i] = (freeCount > 0) ? freeBlocks[--freeCount] : allocateBlock();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // The blocks are not reachable by anyone else until the slot is returned
+        for (int i = 0, offset = 0; offset < bytes.length; i++, offset += blockSize) {
+            chunkOf(blocks[i]).put(offsetOf(blocks[i]), bytes, offset, Math.min(blockSize, bytes.length - offset));
+        }
+        return new Slot(blocks, bytes.length);
+    }
+
+    /**
+     * Load the bytes held by the given slot.
+     *
+     * @param slot The slot returned by {@link #store(byte[])}.
+     * @return The stored bytes, or null if the slot has been freed.
+     */
+    public byte[] load(Slot slot) {
+        byte[] bytes = new byte[slot.length];
+        lock.readLock().lock();
+        try {
+            if (slot.freed) {
+                return null;
+            }
+            for (int i = 0, offset = 0; offset < bytes.length; i++, offset += blockSize) {
+                chunkOf(slot.blocks[i]).get(offsetOf(slot.blocks[i]), bytes, offset, Math.min(blockSize, bytes.length - offset));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return bytes;
+    }
+
+    /**
+     * Release the blocks of the given slot. Freeing a slot twice has no effect.
+     */
+    public void free(Slot slot) {
+        lock.writeLock().lock();
+        try {
+            if (slot.freed) {
+                return;
+            }
+            slot.freed = true;
+            for (int block : slot.blocks) {
+                freeBlocks[freeCount++] = block;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a document of the given size fits into the free space.
+     */
+    public boolean hasRoomFor(int length) {
+        lock.readLock().lock();
+        try {
+            return freeCount + (totalBlocks - nextUnusedBlock) >= blocksFor(length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the number of bytes in blocks that are currently in use.
+     */
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) (nextUnusedBlock - freeCount) * blockSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the maximum number of bytes the store can hold.
+     */
+    public long getCapacityBytes() {
+        return (long) totalBlocks * blockSize;
+    }
+
+    private int blocksFor(int length) {
+        return Math.max(1, (length + blockSize - 1) / blockSize);
+    }
+
+    private int allocateBlock() {
+        int block = nextUnusedBlock++;
+        int chunk = block / blocksPerChunk;
+        if (chunks[chunk] == null) {
+            int chunkBlocks = Math.min(blocksPerChunk, totalBlocks - chunk * blocksPerChunk);
+            chunks[chunk] = ByteBuffer.allocateDirect(chunkBlocks * blockSize);
+        }
+        return block;
+    }
+
+    private ByteBuffer chunkOf(int block) {
+        return chunks[block / blocksPerChunk];
+    }
+
+    private int offsetOf(int block) {
+        return (block % blocksPerChunk) * blockSize;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A filter of a VP policy, compiled for matching the credentials of presentations.
+ *
+ * The checks are those of VpManager: each credential schema of the filter must be matched by a credential with
+ * the same schema ID and type, the first such credential must be issued by an allowed issuer, contain all required
+ * claims and, if the schema requires all claims to be presented, carry a proof value. Schemas are looked up by
+ * their ID and type, the allowed issuers of a schema are a hash set, and the required claims are numbered so
+ * that a credential's claims are checked off in a bit set with one lookup per claim. The cost of a check thus
+ * grows with the size of the presentation rather than with the product of the filter and presentation sizes.
+ *
+ * A compiled filter is immutable and can be shared by any number of threads.
+ */
+public final class PresentationFilter {
+    /**
+     * A filter that matches any presentation.
+     */
+    public static final PresentationFilter MATCH_ALL = new PresentationFilter(new SchemaMatcher[0], Map.of());
+
+    private final SchemaMatcher[] schemaMatchers;
+    private final Map<SchemaKey, int[]> schemaIndexes;
+
+    private PresentationFilter(SchemaMatcher[] schemaMatchers, Map<SchemaKey, int[]> schemaIndexes) {
+        this.schemaMatchers = schemaMatchers;
+        this.schemaIndexes = schemaIndexes;
+    }
+
+    private record SchemaKey(String id, String type) {
+    }
+
+    /**
+     * Compile a filter.
+     *
+     * @param filter The filter, or null.
+     * @return The compiled filter; a null filter or a filter without credential schemas matches any presentation.
+     */
+    public static PresentationFilter compile(Filter filter) {
+        if (filter == null || filter.getCredentialSchemas() == null || filter.getCredentialSchemas().isEmpty()) {
+            return MATCH_ALL;
+        }
+        List<CredentialSchema> credentialSchemas = filter.getCredentialSchemas();
+        SchemaMatcher[] schemaMatchers = new SchemaMatcher[credentialSchemas.size()];
+        Map<SchemaKey, List<Integer>> indexes = new HashMap<>();
+        for (int i = 0; i < schemaMatchers.length; i++) {
+            CredentialSchema credentialSchema = credentialSchemas.get(i);
+            schemaMatchers[i] = SchemaMatcher.compile(credentialSchema);
+            indexes.computeIfAbsent(new SchemaKey(credentialSchema.getId(), credentialSchema.getType()), key -> new ArrayList<>())
+                    .add(i);
+        }
+        Map<SchemaKey, int[]> schemaIndexes = new HashMap<>();
+        indexes.forEach((key, value) -> schemaIndexes.put(key, value.stream().mapToInt(Integer::intValue).toArray()));
+        return new PresentationFilter(schemaMatchers, schemaIndexes);
+    }
+
+    /**
+     * Check that the credentials of a presentation match the filter.
+     *
+     * @param verifiableCredentials The credentials of the presentation.
+     * @throws CoreException if a credential schema of the filter is not matched.
+     */
+    public void check(List<VerifiableCredential> verifiableCredentials) throws CoreException {
+        if (schemaMatchers.length == 0) {
+            return;
+        }
+        VerifiableCredential[] matches = new VerifiableCredential[schemaMatchers.length];
+        int unmatched = schemaMatchers.length;
+        for (VerifiableCredential verifiableCredential : verifiableCredentials) {
+            if (unmatched == 0) {
+                break;
+            }
+            CredentialSchema credentialSchema = verifiableCredential.getCredentialSchema();
+            if (credentialSchema == null) {
+                continue;
+            }
+            int[] indexes = schemaIndexes.get(new SchemaKey(credentialSchema.getId(), credentialSchema.getType()));
+            if (indexes == null) {
+                continue;
+            }
+            for (int index : indexes) {
+                if (matches[index] == null) {
+                    matches[index] = verifiableCredential;
+                    unmatched--;
+                }
+            }
+        }
+
+        for (int i = 0; i < schemaMatchers.length; i++) {
+            if (matches[i] == null) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_SCHEMA);
+            }
+            schemaMatchers[i].check(matches[i]);
+        }
+    }
+
+    /**
+     * The checks of one credential schema against the credential that matched it.
+     */
+    private record SchemaMatcher(Set<String> allowedIssuers, Map<String, Integer> requiredClaimIndexes,
+                                 boolean presentAll) {
+        static SchemaMatcher compile(CredentialSchema credentialSchema) {
+            Set<String> allowedIssuers = credentialSchema.getAllowedIssuers() == null
+                    ? Set.of() : Collections.unmodifiableSet(new HashSet<>(credentialSchema.getAllowedIssuers()));
+            Map<String, Integer> requiredClaimIndexes = new HashMap<>();
+            if (credentialSchema.getRequiredClaims() != null) {
+                for (String code : credentialSchema.getRequiredClaims()) {
+                    requiredClaimIndexes.putIfAbsent(code, requiredClaimIndexes.size());
+                }
+            }
+            return new SchemaMatcher(allowedIssuers, Collections.unmodifiableMap(requiredClaimIndexes),
+                    Boolean.TRUE.equals(credentialSchema.getPresentAll()));
+        }
+
+        void check(VerifiableCredential verifiableCredential) throws CoreException {
+            String issuer = verifiableCredential.getIssuer() == null ? null : verifiableCredential.getIssuer().getId();
+            if (issuer == null || !allowedIssuers.contains(issuer)) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER);
+            }
+
+            if (!requiredClaimIndexes.isEmpty() && !containsRequiredClaims(verifiableCredential)) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_CONTAIN_CLAIM);
+            }
+
+            if (presentAll) {
+                String proofValue = verifiableCredential.getProof() == null
+                        ? null : verifiableCredential.getProof().getProofValue();
+                if (proofValue == null || proofValue.isBlank()) {
+                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_PROOFVALUE);
+                }
+            }
+        }
+
+        private boolean containsRequiredClaims(VerifiableCredential verifiableCredential) {
+            if (verifiableCredential.getCredentialSubject() == null
+                    || verifiableCredential.getCredentialSubject().getClaims() == null) {
+                return false;
+            }
+            BitSet found = new BitSet(requiredClaimIndexes.size());
+            int missing = requiredClaimIndexes.size();
+            for (Claim claim : verifiableCredential.getCredentialSubject().getClaims()) {
+                Integer index = claim.getCode() == null ? null : requiredClaimIndexes.get(claim.getCode());
+                if (index != null && !found.get(index)) {
+                    found.set(index);
+                    if (--missing == 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
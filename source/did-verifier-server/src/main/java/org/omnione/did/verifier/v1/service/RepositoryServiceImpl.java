@@ -33,6 +33,12 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
 /**
  * Handles retrieval of DID documents and VC metadata management via a repository service.
  *
@@ -45,13 +51,15 @@ import org.springframework.stereotype.Service;
 @Profile("repository")
 public class RepositoryServiceImpl implements StorageService {
     private final RepositoryFeign repositoryFeign;
+    private final ExecutorService didResolutionExecutor;
 
     /**
      * Finds a DID document using the provided DID key URL by calling the repository service.
      *
      * @param didKeyUrl URL of the DID key.
      * @return Found DID document.
-     * @throws OpenDidException if the DIO document retrieval fails.
+     * @throws OpenDidException if the DIO document retrieval fails,
+     *         or with DID_STORAGE_UNAVAILABLE if the repository service cannot be reached or fails.
      */
     @Override
     public DidDocument findDidDoc(String didKeyUrl) {
@@ -66,10 +74,46 @@ public class RepositoryServiceImpl implements StorageService {
             DidManager didManager = BaseCoreDidUtil.parseDidDoc(didDocJson);
 
             return didManager.getDocument();
-        } catch (FeignException e) {
+        } catch (FeignException.FeignClientException e) {
             log.error("Failed to find DID document.", e);
             throw new OpenDidException(ErrorCode.FAILED_TO_FIND_DID_DOC);
+        } catch (FeignException e) {
+            log.error("Failed to reach the repository service.", e);
+            throw new OpenDidException(ErrorCode.DID_STORAGE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Starts finding a DID document through the repository service on the DID resolution executor.
+     * The Feign client is blocking, so the call runs on an executor thread.
+     *
+     * @param didKeyUrl URL of the DID key.
+     * @return Future completed with the found DID document.
+     */
+    @Override
+    public CompletableFuture<DidDocument> findDidDocAsync(String didKeyUrl) {
+        return CompletableFuture.supplyAsync(() -> findDidDoc(didKeyUrl), didResolutionExecutor);
+    }
+
+    /**
+     * Finds the DID documents of several key URLs by calling the repository service concurrently,
+     * once per distinct DID.
+     *
+     * @param didKeyUrls URLs of the DID keys.
+     * @return Found DID documents, keyed by DID key URL.
+     * @throws OpenDidException if any of the DID documents cannot be found.
+     */
+    @Override
+    public Map<String, DidDocument> findDidDocs(Collection<String> didKeyUrls) {
+        // The repository returns the DID document by DID, so key URLs of the same DID share one call
+        Map<String, DidDocument> didDocumentsByDid = StorageService.super.findDidDocs(
+                didKeyUrls.stream().map(DidUtil::extractDid).distinct().toList());
+
+        Map<String, DidDocument> didDocuments = new LinkedHashMap<>();
+        for (String didKeyUrl : didKeyUrls) {
+            didDocuments.put(didKeyUrl, didDocumentsByDid.get(DidUtil.extractDid(didKeyUrl)));
         }
+        return didDocuments;
     }
 
 }
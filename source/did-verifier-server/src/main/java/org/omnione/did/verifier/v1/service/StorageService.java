@@ -16,9 +16,17 @@
 
 package org.omnione.did.verifier.v1.service;
 
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.vc.VcMeta;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Storage service interface for finding DID document
  */
@@ -32,4 +40,49 @@ public interface StorageService {
      */
     DidDocument findDidDoc(String didKeyUrl);
 
+    /**
+     * Starts finding a DID document by its key URL without blocking the caller.
+     *
+     * @param didKeyUrl URL of the DID key.
+     * @return Future completed with the found DID document, or with an OpenDidException if it cannot be found.
+     */
+    CompletableFuture<DidDocument> findDidDocAsync(String didKeyUrl);
+
+    /**
+     * Finds the DID documents of several key URLs in one step.
+     * All lookups are started at once, so the latency is that of the slowest lookup.
+     *
+     * @param didKeyUrls URLs of the DID keys.
+     * @return Found DID documents, keyed by DID key URL.
+     * @throws OpenDidException if any of the DID documents cannot be found.
+     */
+    default Map<String, DidDocument> findDidDocs(Collection<String> didKeyUrls) {
+        Map<String, CompletableFuture<DidDocument>> lookups = new LinkedHashMap<>();
+        for (String didKeyUrl : didKeyUrls) {
+            lookups.computeIfAbsent(didKeyUrl, this::findDidDocAsync);
+        }
+
+        Map<String, DidDocument> didDocuments = new LinkedHashMap<>();
+        lookups.forEach((didKeyUrl, lookup) -> didDocuments.put(didKeyUrl, awaitDidDoc(lookup)));
+        return didDocuments;
+    }
+
+    /**
+     * Waits for a DID document lookup and unwraps its failure.
+     *
+     * @param lookup The pending lookup.
+     * @return Found DID document.
+     * @throws OpenDidException if the lookup failed.
+     */
+    private static DidDocument awaitDidDoc(CompletableFuture<DidDocument> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof OpenDidException openDidException) {
+                throw openDidException;
+            }
+            throw new OpenDidException(ErrorCode.FAILED_TO_FIND_DID_DOC);
+        }
+    }
+
 }
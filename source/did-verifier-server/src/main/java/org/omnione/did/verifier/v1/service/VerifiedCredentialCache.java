@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of credentials whose issuer proof was verified successfully.
+ * Entries are keyed by a digest of the credential and the issuer key it was verified with,
+ * and are kept until their expiry, which never lies past the validity of the credential.
+ *
+ * Expired entries are dropped when they are looked up. When the cache is full, the least recently used
+ * entry is evicted, so that new results are always remembered and the credentials in use stay warm.
+ */
+public class VerifiedCredentialCache {
+    private final int maxSize;
+    private final Map<String, Entry> cache;
+
+    public VerifiedCredentialCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > VerifiedCredentialCache.this.maxSize;
+            }
+        };
+    }
+
+    private record Entry(String issuer, long expiresAt) {
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    /**
+     * Checks if a credential was verified and the result has not expired yet.
+     *
+     * @param key The digest of the credential and its issuer key.
+     */
+    public boolean isVerified(String key) {
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                cache.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Remember that a credential was verified, until the given time.
+     *
+     * @param key The digest of the credential and its issuer key.
+     * @param issuer The DID of the credential's issuer.
+     * @param expiresAt The time in milliseconds after which the result must be verified again.
+     */
+    public void recordVerified(String key, String issuer, long expiresAt) {
+        synchronized (cache) {
+            cache.put(key, new Entry(issuer, expiresAt));
+        }
+    }
+
+    /**
+     * Forget all credentials of the given issuer.
+     */
+    public void invalidateIssuer(String issuer) {
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.issuer().equals(issuer));
+        }
+    }
+
+    /**
+     * Remove all entries that have expired.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.isExpired(now));
+        }
+    }
+
+    /**
+     * Return the number of entries currently stored in the cache.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
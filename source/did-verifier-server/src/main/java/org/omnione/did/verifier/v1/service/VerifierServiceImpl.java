@@ -24,7 +24,6 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.bouncycastle.jce.interfaces.ECPublicKey;
 import org.omnione.did.base.datamodel.data.*;
 import org.omnione.did.base.datamodel.enums.*;
 import org.omnione.did.base.db.constant.SubTransactionStatus;
@@ -37,29 +36,13 @@ import org.omnione.did.base.db.repository.VpSubmitRepository;
 import org.omnione.did.base.exception.ErrorCode;
 import org.omnione.did.base.exception.OpenDidException;
 import org.omnione.did.base.property.VerifierProperty;
-import org.omnione.did.base.util.BaseCoreDidUtil;
 import org.omnione.did.base.util.BaseCryptoUtil;
 import org.omnione.did.base.util.BaseDigestUtil;
 import org.omnione.did.base.util.BaseMultibaseUtil;
-import org.omnione.did.common.util.DateTimeUtil;
-import org.omnione.did.common.util.DidUtil;
 import org.omnione.did.common.util.JsonUtil;
-import org.omnione.did.core.data.rest.VpVerifyParam;
-import org.omnione.did.core.exception.CoreException;
-import org.omnione.did.core.manager.DidManager;
-import org.omnione.did.core.manager.VpManager;
-import org.omnione.did.crypto.enums.MultiBaseType;
-import org.omnione.did.crypto.exception.CryptoException;
-import org.omnione.did.crypto.keypair.EcKeyPair;
-import org.omnione.did.crypto.keypair.KeyPairInterface;
-import org.omnione.did.crypto.util.MultiBaseUtils;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.Proof;
-import org.omnione.did.data.model.did.VerificationMethod;
-import org.omnione.did.data.model.enums.did.ProofType;
-import org.omnione.did.data.model.profile.Filter;
 import org.omnione.did.data.model.profile.ReqE2e;
-import org.omnione.did.data.model.profile.verify.VerifyProcess;
 import org.omnione.did.data.model.profile.verify.VerifyProfile;
 import org.omnione.did.data.model.vc.Claim;
 import org.omnione.did.data.model.vc.VerifiableCredential;
@@ -68,12 +51,10 @@ import org.omnione.did.verifier.v1.dto.*;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
-import java.security.interfaces.ECPrivateKey;
 import java.time.Instant;
 import java.util.*;
 
 import static org.omnione.did.base.util.BaseCryptoUtil.*;
-import static org.omnione.did.common.util.JsonUtil.serializeAndSort;
 
 /**
  * VerifierServiceImpl class
@@ -92,9 +73,9 @@ public class VerifierServiceImpl implements VerifierService {
     private final FileLoaderService fileLoaderService;
     private final VpProfileRepository vpProfileRepository;
     private final VpSubmitRepository vpSubmitRepository;
-    private final FileWalletService walletService;
-    private final StorageService storageService;
     private final DidDocService didDocService;
+    private final VpVerificationService vpVerificationService;
+    private final VpProfilePoolService vpProfilePoolService;
     private final VerifierProperty verifierProperty;
 
 
@@ -159,30 +140,14 @@ public class VerifierServiceImpl implements VerifierService {
             Transaction transaction = findTransactionByRequestDto(requestProfileReqDto);
             VpOffer vpOffer = findVpOfferByTransaction(transaction);
 
-            log.debug("\t --> Retrieving VP Policy by policyId in VP Offer");
-            VerifyProfile verifyProfile = getVerifyProfileFromPolicy(vpOffer.getVpPolicyId());
-
-            log.debug("\t --> Generating ReqE2e and VerifierNonce");
-            String generateNonce = generateNonce();
-            verifyProfile.setId(UUID.randomUUID().toString());
-            VerifyProcess process = verifyProfile.getProfile().getProcess();
-            ReqE2e reqE2e = process.getReqE2e();
-            KeyPairInterface keyPair = generateEcKeyPair(process.getReqE2e().getCurve());
-            generateReqE2e(reqE2e, generateNonce, keyPair);
-            process.setReqE2e(reqE2e);
-            process.setVerifierNonce(generateNonce);
-
-            log.debug("\t --> Retrieving verifier DID Document");
-            DidDocument verifierDidDoc = didDocService.getDidDocument(verifierProperty.getDid());
-
-            log.debug("\t --> Generating Verify Profile Proof");
-            verifyProfile.setProof(generatePreProof(verifierDidDoc));
-            verifyProfile.setProof(generateProof(verifyProfile));
+            log.debug("\t --> Taking a signed VP Profile for the VP Policy in VP Offer");
+            VpProfilePoolService.MintedProfile mintedProfile = vpProfilePoolService.takeProfile(vpOffer.getVpPolicyId());
+            VerifyProfile verifyProfile = mintedProfile.verifyProfile();
+            ReqE2e reqE2e = verifyProfile.getProfile().getProcess().getReqE2e();
 
             log.debug("\t --> Saving VP Profile and E2E information");
-            VpProfileSave(verifyProfile, transaction.getId());
+            VpProfileSave(verifyProfile.getId(), mintedProfile.verifyProfileJson(), transaction.getId());
             SubTransaction lastSubTransaction = transactionService.findLastSubTransaction(transaction.getId());
-            String encodedSessionKey = encodedSessionKey((ECPrivateKey) keyPair.getPrivateKey());
 
             transactionService.saveSubTransaction(SubTransaction.builder()
                     .transactionId(transaction.getId())
@@ -197,7 +162,7 @@ public class VerifierServiceImpl implements VerifierService {
                     .cipher(reqE2e.getCipher())
                     .padding(reqE2e.getPadding())
                     .nonce(reqE2e.getNonce())
-                    .sessionKey(encodedSessionKey)
+                    .sessionKey(mintedProfile.sessionKey())
                     .build());
 
             log.debug("*** Finished requestProfile ***");
@@ -231,6 +196,9 @@ public class VerifierServiceImpl implements VerifierService {
     public RequestVerifyResDto requestVerify(RequestVerifyReqDto requestVerifyReqDto) {
         try {
             log.info("=== Starting requestVerify ===");
+            log.debug("\t --> Starting holder DID Document resolution");
+            prefetchHolderDidDocument(requestVerifyReqDto.getAccE2e());
+
             log.debug("\t --> Retrieving transaction information and last sub-transaction");
             Transaction transaction = transactionService.findTransactionByTxId(requestVerifyReqDto.getTxId());
             SubTransaction lastSubTransaction = transactionService.findLastSubTransaction(transaction.getId());
@@ -242,11 +210,6 @@ public class VerifierServiceImpl implements VerifierService {
             VerifyProfile findProfile = findProfile(requestVerifyReqDto.getTxId());
 
 
-            log.debug("\t --> if AccE2e proof exists, verify it");
-            if(Objects.nonNull(requestVerifyReqDto.getAccE2e().getProof())){
-                verifyAccE2eProof(requestVerifyReqDto.getAccE2e());
-            }
-
             log.debug("\t --> Decrypting VP and verifying AuthType");
             String serverNonce = findProfile.getProfile().getProcess().getVerifierNonce();
             VerifiablePresentation verifiablePresentation = decryptVp(requestVerifyReqDto, serverNonce);
@@ -257,8 +220,17 @@ public class VerifierServiceImpl implements VerifierService {
             log.debug("\t --> Validating Nonce");
             nonceValid(verifiablePresentation.getVerifierNonce(), serverNonce);
 
+            log.debug("\t --> Checking VP expiry and filter before any signature is verified");
+            vpVerificationService.checkPresentation(verifiablePresentation,
+                    fileLoaderService.getPresentationFilter(findProfile.getProfile().getFilter()));
+
+            log.debug("\t --> if AccE2e proof exists, verify it");
+            if(Objects.nonNull(requestVerifyReqDto.getAccE2e().getProof())){
+                verifyAccE2eProof(requestVerifyReqDto.getAccE2e());
+            }
+
             log.debug("\t --> Verifying VP");
-            VerifyVp(verifiablePresentation, findProfile.getProfile().getFilter());
+            VerifyVp(verifiablePresentation);
 
             log.debug("\t --> Saving VP data and updating transaction status");
             String vpData = verifiablePresentation.toJson();
@@ -483,26 +455,47 @@ public class VerifierServiceImpl implements VerifierService {
     }
 
     /**
-     * Verifies a Verifiable Presentation.
+     * Verifies the proofs of a Verifiable Presentation.
      *
      * @param verifiablePresentation The VerifiablePresentation to verify
-     * @param filter The filter to apply during verification
      * @throws OpenDidException If the verification fails
      */
-    private void VerifyVp(VerifiablePresentation verifiablePresentation, Filter filter) {
-        VpManager vpManager = new VpManager();
-        DidDocument holderDid = storageService.findDidDoc(verifiablePresentation.getHolder());
+    private void VerifyVp(VerifiablePresentation verifiablePresentation) {
+        String holder = verifiablePresentation.getHolder();
+        String holderDidUrl = verifiablePresentation.getProof() == null
+                ? holder : toSignerDidUrl(holder, verifiablePresentation.getProof().getVerificationMethod());
         List<VerifiableCredential> verifiableCredentials = verifiablePresentation.getVerifiableCredential();
-        verifiableCredentials.forEach(vc -> {
-            DidDocument issuerDidDoc = storageService.findDidDoc(vc.getIssuer().getId());
-            VpVerifyParam vpVerifyParam = new VpVerifyParam(holderDid, issuerDidDoc);
-            vpVerifyParam.setFilter(filter);
-            try {
-                vpManager.verifyPresentation(verifiablePresentation, vpVerifyParam);
-            } catch (CoreException e) {
-                throw new OpenDidException(ErrorCode.VP_VERIFY_ERROR);
-            }
-        });
+        List<String> issuerDidUrls = verifiableCredentials.stream()
+                .map(vc -> vc.getProof() == null
+                        ? vc.getIssuer().getId() : toSignerDidUrl(vc.getIssuer().getId(), vc.getProof().getVerificationMethod()))
+                .toList();
+
+        // Resolve the latest documents of the holder and all issuers in one step
+        List<String> didUrls = new ArrayList<>(issuerDidUrls);
+        didUrls.add(holderDidUrl);
+        Map<String, DidDocument> didDocuments = didDocService.getLatestDidDocuments(didUrls);
+
+        List<DidDocument> issuerDidDocs = issuerDidUrls.stream()
+                .map(didDocuments::get)
+                .toList();
+        vpVerificationService.verifyPresentation(verifiablePresentation, didDocuments.get(holderDidUrl),
+                issuerDidDocs);
+    }
+
+    /**
+     * Returns the DID URL to resolve the signer's DID document with.
+     * When the proof was made with a key of the expected DID, its key URL is used, so that a version
+     * newer than the cached document is fetched; the proof is still verified against the latest document.
+     *
+     * @param did The DID expected to have made the proof
+     * @param verificationMethod The verification method of the proof
+     * @return String The versioned DID key URL, or the DID itself
+     */
+    private String toSignerDidUrl(String did, String verificationMethod) {
+        if (verificationMethod != null && verificationMethod.startsWith(did + "?versionId=")) {
+            return verificationMethod;
+        }
+        return did;
     }
 
     /**
@@ -530,6 +523,19 @@ public class VerifierServiceImpl implements VerifierService {
         return verifiablePresentation;
     }
 
+    /**
+     * Starts resolving the holder's DID document referenced by the AccE2e proof in the background,
+     * so that the ledger round trip overlaps with the transaction and profile lookups.
+     * The proof verification and VP verification later pick up the same resolution.
+     *
+     * @param accE2e The AccE2e object of the request
+     */
+    private void prefetchHolderDidDocument(AccE2e accE2e) {
+        if (accE2e != null && accE2e.getProof() != null && accE2e.getProof().getVerificationMethod() != null) {
+            didDocService.getDidDocumentAsync(accE2e.getProof().getVerificationMethod());
+        }
+    }
+
     /**
      * Verifies the proof of an AccE2e object.
      *
@@ -539,12 +545,7 @@ public class VerifierServiceImpl implements VerifierService {
     private void verifyAccE2eProof(AccE2e accE2e) {
         try {
             Proof proof = accE2e.getProof();
-            String verificationMethod = proof.getVerificationMethod();
-            DidDocument holderDidDoc = storageService.findDidDoc(verificationMethod);
-            DidManager didManager = new DidManager();
-            didManager.parse(holderDidDoc.toJson());
-            String keyId = DidUtil.extractKeyId(verificationMethod);
-            VerificationMethod publicKeyByKeyId = didManager.getVerificationMethodByKeyId(keyId);
+            KeyMaterial keyMaterial = didDocService.getKeyMaterial(proof.getVerificationMethod());
 
             Proof tmpProof = new Proof();
             tmpProof.setType(proof.getType());
@@ -555,8 +556,8 @@ public class VerifierServiceImpl implements VerifierService {
 
 
             String accE2eString = JsonUtil.serializeAndSort(accE2e);
-            BaseCryptoUtil.verifySignature(publicKeyByKeyId.getPublicKeyMultibase(), proof.getProofValue(),
-            BaseDigestUtil.generateHash(accE2eString.getBytes(StandardCharsets.UTF_8)), EccCurveType.SECP_256_R1);
+            BaseCryptoUtil.verifySignature(keyMaterial, proof.getProofValue(),
+                    BaseDigestUtil.generateHash(accE2eString.getBytes(StandardCharsets.UTF_8)));
 
         } catch (JsonProcessingException e) {
             throw new OpenDidException(ErrorCode.JSON_PARSE_ERROR);
@@ -569,22 +570,16 @@ public class VerifierServiceImpl implements VerifierService {
     /**
      * Saves a VP Profile.
      *
-     * @param verifyProfile The VerifyProfile to save
+     * @param profileId The ID of the VerifyProfile
+     * @param verifyProfileJson The serialized VerifyProfile
      * @param txId The ID of the associated transaction
-     * @throws OpenDidException If saving fails
      */
-    private void VpProfileSave(VerifyProfile verifyProfile, Long txId)  {
+    private void VpProfileSave(String profileId, String verifyProfileJson, Long txId)  {
         VpProfile vpProfile = new VpProfile();
-        vpProfile.setProfileId(verifyProfile.getId());
+        vpProfile.setProfileId(profileId);
         vpProfile.setTransactionId(txId);
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            String verifyProfileToJson = objectMapper.writeValueAsString(verifyProfile);
-            vpProfile.setVpProfile(verifyProfileToJson);
-            vpProfileRepository.save(vpProfile);
-        } catch (JsonProcessingException e) {
-            throw new OpenDidException(ErrorCode.VERIFY_PROFILE_PARSE_ERROR);
-        }
+        vpProfile.setVpProfile(verifyProfileJson);
+        vpProfileRepository.save(vpProfile);
     }
 
     /**
@@ -597,26 +592,6 @@ public class VerifierServiceImpl implements VerifierService {
         return vpOfferQueryService.findByTransactionId(transaction.getId());
     }
 
-    /**
-     * Generates ReqE2e data.
-     *
-     * @param reqE2e The ReqE2e object to populate
-     * @param verifierNonce The nonce for the verifier
-     * @param keyPair The key pair for E2E encryption
-     * @throws OpenDidException If generation fails
-     */
-    private void generateReqE2e(ReqE2e reqE2e, String verifierNonce, KeyPairInterface keyPair)  {
-       try {
-           ECPublicKey publicKey = (ECPublicKey) keyPair.getPublicKey();
-           byte[] encodedPublicKey = BaseCryptoUtil.compressPublicKey(publicKey.getEncoded(), EccCurveType.SECP_256_R1);
-           reqE2e.setPublicKey(MultiBaseUtils.encode(encodedPublicKey, MultiBaseType.base58btc));
-           reqE2e.setNonce(verifierNonce);
-       } catch (CryptoException e) {
-           throw new OpenDidException(ErrorCode.CRYPTO_ERROR);
-       }
-
-    }
-
     /**
      * Finds a transaction by the request DTO.
      * Validates the transaction status and expiration time.
@@ -644,30 +619,6 @@ public class VerifierServiceImpl implements VerifierService {
         return transaction;
     }
 
-    /**
-     * Retrieves a VerifyProfile from a policy.
-     *
-     * @param policyId The ID of the policy
-     * @return VerifyProfile The retrieved VerifyProfile
-     * @throws OpenDidException If the policy is not found or cannot be parsed
-     */
-    private VerifyProfile getVerifyProfileFromPolicy(String policyId) {
-        VpPolicy policyById = fileLoaderService.getPolicyById(policyId);
-        if (policyById == null || policyById.getProfile() == null) {
-            throw new OpenDidException(ErrorCode.VP_POLICY_NOT_FOUND);
-        }
-        return policyById.getProfile();
-    }
-
-    /**
-     * Generates a nonce.
-     *
-     * @return String The generated nonce
-     */
-    private String generateNonce() {
-        return BaseMultibaseUtil.encode(BaseCryptoUtil.generateNonce(16), MultiBaseType.base64);
-    }
-
     /**
      * Validates a transaction and its sub-transaction.
      *
@@ -737,47 +688,6 @@ public class VerifierServiceImpl implements VerifierService {
         }
     }
 
-    /**
-     * Generates a proof for a VerifyProfile.
-     *
-     * @param verifyProfile The VerifyProfile to generate a proof for
-     * @return Proof The generated proof
-     * @throws OpenDidException If JSON processing fails
-     */
-    private Proof generateProof(VerifyProfile verifyProfile)  {
-        try {
-            String serializedAndSortedProfile = serializeAndSort(verifyProfile);
-            byte[] signatureBytes = walletService.generateCompactSignature("assert", serializedAndSortedProfile);
-            Proof proof = new Proof();
-            proof.setType(verifyProfile.getProof().getType());
-            proof.setCreated(verifyProfile.getProof().getCreated());
-            proof.setProofPurpose(verifyProfile.getProof().getProofPurpose());
-            proof.setVerificationMethod(verifyProfile.getProof().getVerificationMethod());
-            proof.setProofValue(BaseMultibaseUtil.encode(signatureBytes, MultiBaseType.base58btc));
-            return proof;
-        } catch (JsonProcessingException e) {
-            throw new OpenDidException(ErrorCode.JSON_PARSE_ERROR);
-        }
-
-    }
-
-    /**
-     * Generates a preliminary proof for a VerifyProfile.
-     *
-     * @param verifierDidDoc The verifier's DID document
-     * @return Proof The generated preliminary proof
-     */
-    private Proof generatePreProof(DidDocument verifierDidDoc) {
-        Proof proof = new Proof();
-        proof.setType(ProofType.SECP256R1_SIGNATURE_2018.getRawValue());
-        proof.setCreated(DateTimeUtil.getCurrentUTCTimeString());
-        proof.setProofPurpose(ProofPurpose.ASSERTION_METHOD.toString());
-        String verificationMethod = getVerificationMethod(verifierDidDoc);
-        proof.setVerificationMethod(verificationMethod);
-        return proof;
-    }
-
-
     /**
      * Generates a shared secret key using the AccE2e public key and the stored E2e session key.
      * This is a crucial step in the end-to-end encryption process.
@@ -810,43 +720,6 @@ public class VerifierServiceImpl implements VerifierService {
                 cipherType);
     }
 
-    /**
-     * Encodes a session key.
-     * This method prepares the private key for storage or transmission in a secure format.
-     *
-     * @param privateKey The private key to encode
-     * @return String The encoded session key
-     */
-    private String encodedSessionKey(ECPrivateKey privateKey) {
-        return BaseMultibaseUtil.encode(privateKey.getEncoded());
-    }
-
-    /**
-     * Retrieves the verification method from a verifier's DID document.
-     * This method is used to determine how the verifier's identity should be verified.
-     *
-     * @param verifierDidDoc The verifier's DID document
-     * @return String The verification method
-     */
-    private String getVerificationMethod(DidDocument verifierDidDoc)
-    {
-        String version = verifierDidDoc.getVersionId();
-        VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(verifierDidDoc, ProofPurpose.ASSERTION_METHOD.toKeyId());
-
-        return verifierDidDoc.getId() + "?versionId=" + version + "#" + verificationMethod.getId();
-    }
-
-    /**
-     * Generates a key pair for E2E encryption.
-     * This method creates a new key pair for secure end-to-end communication.
-     *
-     * @param curve The curve to use for the key pair generation
-     * @return EcKeyPair The generated key pair
-     */
-    private EcKeyPair generateEcKeyPair(String curve) {
-        EccCurveType eccCurveType = EccCurveType.fromValue(curve);
-        return (EcKeyPair) BaseCryptoUtil.generateKeyPair(eccCurveType);
-    }
     /**
      * Updates the payload of a VP Offer.
      * This method is used to set the expiration time and offer ID for the VP Offer.
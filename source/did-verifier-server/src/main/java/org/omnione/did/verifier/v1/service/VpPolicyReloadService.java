@@ -0,0 +1,216 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.property.DidCacheProperty;
+import org.omnione.did.base.property.VpPolicyReloadProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the VP policies when the files in the sample path change, so that policies can be added
+ * and edited without restarting the verifier.
+ *
+ * The reloader runs on its own thread. It watches the sample path and its subdirectories for changes and,
+ * after a change, waits for the configured debounce interval so that a file being written is read once.
+ * It also reloads on every poll interval, which catches changes the file system does not report
+ * (e.g., on network file systems) and is the only trigger when watching is disabled or unsupported.
+ * A reload that finds no changed file does not parse anything.
+ *
+ * After policies were added, changed or removed, the pre-minted VP profiles of those policies are discarded
+ * and the DID Documents of their allowed issuers are pre-warmed. Request threads keep reading the previous
+ * policies until the new ones are swapped in.
+ */
+@Service
+@Slf4j
+@Profile("!sample")
+public class VpPolicyReloadService {
+
+    private final FileLoaderService fileLoaderService;
+    private final VpProfilePoolService vpProfilePoolService;
+    private final DidDocPrewarmService didDocPrewarmService;
+    private final DidCacheProperty didCacheProperty;
+    private final VpPolicyReloadProperty vpPolicyReloadProperty;
+    private final ExecutorService reloadExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("vp-policy-reload-"));
+    private volatile boolean running;
+
+    @Value("${verifier.sample-path}")
+    private String samplePath;
+
+    public VpPolicyReloadService(FileLoaderService fileLoaderService,
+                                 VpProfilePoolService vpProfilePoolService,
+                                 DidDocPrewarmService didDocPrewarmService,
+                                 DidCacheProperty didCacheProperty,
+                                 VpPolicyReloadProperty vpPolicyReloadProperty) {
+        this.fileLoaderService = fileLoaderService;
+        this.vpProfilePoolService = vpProfilePoolService;
+        this.didDocPrewarmService = didDocPrewarmService;
+        this.didCacheProperty = didCacheProperty;
+        this.vpPolicyReloadProperty = vpPolicyReloadProperty;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (vpPolicyReloadProperty.isEnabled()) {
+            running = true;
+            reloadExecutor.execute(this::watch);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        reloadExecutor.shutdownNow();
+    }
+
+    /**
+     * Reload the VP policies and refresh what was derived from the ones that changed.
+     *
+     * @return The IDs of the policies that were added, changed or removed.
+     */
+    public Set<String> reload() {
+        Set<String> changedPolicyIds = fileLoaderService.reloadPolicies();
+        if (changedPolicyIds.isEmpty()) {
+            return changedPolicyIds;
+        }
+        log.info("Reloaded VP policies, changed: {}", changedPolicyIds);
+        for (String policyId : changedPolicyIds) {
+            vpProfilePoolService.invalidate(policyId);
+        }
+        if (didCacheProperty.isPrewarmEnabled()) {
+            didDocPrewarmService.prewarm();
+        }
+        return changedPolicyIds;
+    }
+
+    /**
+     * Reload on file changes and poll intervals until the service is destroyed.
+     */
+    private void watch() {
+        long pollInterval = Math.max(1, vpPolicyReloadProperty.getPollInterval().toMillis());
+        try (WatchService watchService = openWatchService()) {
+            while (running) {
+                if (watchService == null) {
+                    Thread.sleep(pollInterval);
+                } else if (awaitChange(watchService, pollInterval)) {
+                    Thread.sleep(vpPolicyReloadProperty.getDebounce().toMillis());
+                    drainEvents(watchService);
+                }
+                try {
+                    if (watchService != null) {
+                        registerDirectories(watchService);
+                    }
+                    reload();
+                } catch (IOException | RuntimeException e) {
+                    log.error("Failed to reload VP policies: {}", e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close the VP policy watch service: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Open a watch service on the sample path and its subdirectories.
+     *
+     * @return The watch service, or null if watching is disabled or not supported.
+     */
+    private WatchService openWatchService() {
+        if (!vpPolicyReloadProperty.isWatchEnabled()) {
+            return null;
+        }
+        WatchService watchService = null;
+        try {
+            watchService = Paths.get(samplePath).getFileSystem().newWatchService();
+            registerDirectories(watchService);
+            return watchService;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Cannot watch {} for VP policy changes, polling every {}: {}",
+                    samplePath, vpPolicyReloadProperty.getPollInterval(), e.getMessage());
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ignored) {
+                    // Polling does not need the watch service
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Register the sample path and its subdirectories, including ones created since the last registration.
+     */
+    private void registerDirectories(WatchService watchService) throws IOException {
+        Files.walkFileTree(Paths.get(samplePath), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Wait for file events until the poll interval elapses.
+     *
+     * @return Whether any events were reported.
+     */
+    private boolean awaitChange(WatchService watchService, long pollInterval) throws InterruptedException {
+        WatchKey watchKey = watchService.poll(pollInterval, TimeUnit.MILLISECONDS);
+        if (watchKey == null) {
+            return false;
+        }
+        watchKey.pollEvents();
+        watchKey.reset();
+        return true;
+    }
+
+    private void drainEvents(WatchService watchService) {
+        WatchKey watchKey;
+        while ((watchKey = watchService.poll()) != null) {
+            watchKey.pollEvents();
+            watchKey.reset();
+        }
+    }
+}
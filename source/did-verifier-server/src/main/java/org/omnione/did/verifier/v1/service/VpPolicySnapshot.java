@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import org.omnione.did.base.datamodel.data.VerifyOfferPayload;
+import org.omnione.did.base.datamodel.data.VpPolicy;
+import org.omnione.did.base.datamodel.enums.PresentMode;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.VerifierProperty;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.profile.ReqE2e;
+import org.omnione.did.data.model.profile.verify.InnerVerifyProfile;
+import org.omnione.did.data.model.profile.verify.VerifyProcess;
+import org.omnione.did.data.model.profile.verify.VerifyProfile;
+import org.omnione.did.data.model.provider.ProviderDetail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a loaded VP policy.
+ *
+ * The verifier's settings (DID, certificate VC and endpoints) are applied once, when the snapshot is taken.
+ * The profile and offer payload of the policy are prototypes that are never handed out: every request gets
+ * its own copy, which shares the read-only parts of the prototype (the verifier details, the filter and the
+ * logo) and owns everything that a request fills in (the IDs, the E2E request, the nonce and the proof).
+ * Copies are built field by field instead of by cloning through JSON, so they are cheap, and requests on
+ * any number of threads never observe each other's changes.
+ */
+public final class VpPolicySnapshot {
+    private final String policyId;
+    private final VerifyProfile profile;
+    private final VerifyOfferPayload payload;
+    private final String filterJson;
+    private final PresentationFilter presentationFilter;
+
+    private VpPolicySnapshot(String policyId, VerifyProfile profile, VerifyOfferPayload payload) {
+        this.policyId = policyId;
+        this.profile = profile;
+        this.payload = payload;
+        this.filterJson = getFilter() == null ? null : getFilter().toJson();
+        this.presentationFilter = PresentationFilter.compile(getFilter());
+    }
+
+    /**
+     * Take a snapshot of a freshly parsed VP policy.
+     * The policy is owned by the snapshot afterwards and must not be used by the caller anymore.
+     *
+     * @param vpPolicy The parsed VP policy.
+     * @param verifierProperty The verifier's settings to apply to the policy.
+     * @return The snapshot.
+     */
+    public static VpPolicySnapshot of(VpPolicy vpPolicy, VerifierProperty verifierProperty) {
+        List<String> endpoints = List.copyOf(verifierProperty.getVerifierEndPoints());
+        VerifyProfile profile = vpPolicy.getProfile();
+        if (profile != null && profile.getProfile() != null) {
+            ProviderDetail providerDetail = profile.getProfile().getVerifier();
+            if (providerDetail != null) {
+                providerDetail.setCertVcRef(verifierProperty.getCertVcRef());
+                providerDetail.setDid(verifierProperty.getDid());
+                providerDetail.setRef(verifierProperty.getRef());
+            }
+            VerifyProcess process = profile.getProfile().getProcess();
+            if (process != null) {
+                process.setEndpoints(endpoints);
+            }
+        }
+        VerifyOfferPayload payload = vpPolicy.getPayload();
+        if (payload != null) {
+            payload.setEndpoints(new ArrayList<>(endpoints));
+        }
+        return new VpPolicySnapshot(vpPolicy.getPolicyId(), profile, payload);
+    }
+
+    public String getPolicyId() {
+        return policyId;
+    }
+
+    /**
+     * @return The device of the offer payload, or null.
+     */
+    public String getDevice() {
+        return payload == null ? null : payload.getDevice();
+    }
+
+    /**
+     * @return The service of the offer payload, or null.
+     */
+    public String getService() {
+        return payload == null ? null : payload.getService();
+    }
+
+    /**
+     * @return The presentation mode of the offer payload, or null.
+     */
+    public PresentMode getMode() {
+        return payload == null ? null : payload.getMode();
+    }
+
+    /**
+     * Return the filter of the policy's profile. The filter is shared and must not be modified.
+     *
+     * @return The filter, or null if the policy has none.
+     */
+    public Filter getFilter() {
+        return profile == null || profile.getProfile() == null ? null : profile.getProfile().getFilter();
+    }
+
+    /**
+     * Return the filter of the policy's profile as JSON, serialized when the snapshot was taken.
+     *
+     * @return The JSON of the filter, or null if the policy has none.
+     */
+    public String getFilterJson() {
+        return filterJson;
+    }
+
+    /**
+     * Return the filter of the policy's profile, compiled when the snapshot was taken.
+     *
+     * @return The compiled filter.
+     */
+    public PresentationFilter getPresentationFilter() {
+        return presentationFilter;
+    }
+
+    /**
+     * Create a request-scoped copy of the policy's offer payload.
+     *
+     * @return The offer payload.
+     * @throws OpenDidException if the policy has no offer payload.
+     */
+    public VerifyOfferPayload newOfferPayload() {
+        if (payload == null) {
+            throw new OpenDidException(ErrorCode.VP_POLICY_NOT_FOUND);
+        }
+        return VerifyOfferPayload.builder()
+                .offerId(payload.getOfferId())
+                .type(payload.getType())
+                .mode(payload.getMode())
+                .device(payload.getDevice())
+                .service(payload.getService())
+                .endpoints(payload.getEndpoints() == null ? null : new ArrayList<>(payload.getEndpoints()))
+                .validUntil(payload.getValidUntil())
+                .locked(payload.getLocked())
+                .build();
+    }
+
+    /**
+     * Create a request-scoped copy of the policy's profile, without a proof.
+     *
+     * @return The profile.
+     * @throws OpenDidException if the policy has no profile.
+     */
+    public VerifyProfile newVerifyProfile() {
+        if (profile == null || profile.getProfile() == null) {
+            throw new OpenDidException(ErrorCode.VP_POLICY_NOT_FOUND);
+        }
+        VerifyProfile verifyProfile = new VerifyProfile();
+        verifyProfile.setId(profile.getId());
+        verifyProfile.setType(profile.getType());
+        verifyProfile.setTitle(profile.getTitle());
+        verifyProfile.setDescription(profile.getDescription());
+        verifyProfile.setLogo(profile.getLogo());
+        verifyProfile.setEncoding(profile.getEncoding());
+        verifyProfile.setLanguage(profile.getLanguage());
+
+        InnerVerifyProfile innerProfile = new InnerVerifyProfile();
+        innerProfile.setVerifier(profile.getProfile().getVerifier());
+        innerProfile.setFilter(profile.getProfile().getFilter());
+        innerProfile.setProcess(copyProcess(profile.getProfile().getProcess()));
+        verifyProfile.setProfile(innerProfile);
+        return verifyProfile;
+    }
+
+    private static VerifyProcess copyProcess(VerifyProcess process) {
+        if (process == null) {
+            return null;
+        }
+        VerifyProcess copy = new VerifyProcess();
+        copy.setEndpoints(process.getEndpoints());
+        copy.setVerifierNonce(process.getVerifierNonce());
+        copy.setAuthType(process.getAuthType());
+        copy.setReqE2e(copyReqE2e(process.getReqE2e()));
+        return copy;
+    }
+
+    private static ReqE2e copyReqE2e(ReqE2e reqE2e) {
+        if (reqE2e == null) {
+            return null;
+        }
+        ReqE2e copy = new ReqE2e();
+        copy.setNonce(reqE2e.getNonce());
+        copy.setCurve(reqE2e.getCurve());
+        copy.setPublicKey(reqE2e.getPublicKey());
+        copy.setCipher(reqE2e.getCipher());
+        copy.setPadding(reqE2e.getPadding());
+        copy.setProof(reqE2e.getProof());
+        return copy;
+    }
+}
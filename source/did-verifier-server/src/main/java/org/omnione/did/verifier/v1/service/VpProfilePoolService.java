@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import org.omnione.did.data.model.profile.verify.VerifyProfile;
+
+/**
+ * Service interface for handing out signed VP profiles.
+ *
+ * A VP profile does not depend on the transaction it is issued for: it is the profile of a VP policy
+ * with a fresh ID, E2E key pair and verifier nonce, signed by the verifier. Profiles are therefore
+ * minted ahead of time and handed out on request.
+ */
+public interface VpProfilePoolService {
+    /**
+     * A signed VP profile together with the private key of its E2E key pair.
+     *
+     * @param verifyProfile The signed VP profile.
+     * @param verifyProfileJson The VP profile serialized for storage.
+     * @param sessionKey The multibase encoded PKCS#8 private key of the E2E key pair.
+     * @param verificationMethod The verifier key URL the profile was signed with.
+     * @param mintedAt The time the profile was minted, in epoch milliseconds.
+     */
+    record MintedProfile(VerifyProfile verifyProfile, String verifyProfileJson, String sessionKey,
+                         String verificationMethod, long mintedAt) {
+    }
+
+    /**
+     * Takes a signed VP profile for a VP policy.
+     * A pre-minted profile is returned if one is available, otherwise one is minted on the calling thread.
+     * The profile belongs to the caller and is never handed out again.
+     *
+     * @param policyId The ID of the VP policy.
+     * @return The signed VP profile.
+     * @throws org.omnione.did.base.exception.OpenDidException if the profile cannot be minted.
+     */
+    MintedProfile takeProfile(String policyId);
+
+    /**
+     * Discards the pre-minted profiles of a VP policy, e.g., after the policy has changed.
+     *
+     * @param policyId The ID of the VP policy.
+     */
+    void invalidate(String policyId);
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.datamodel.enums.ProofPurpose;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.VerifierProperty;
+import org.omnione.did.base.property.VpProfilePoolProperty;
+import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.util.BaseCryptoUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.common.util.DateTimeUtil;
+import org.omnione.did.crypto.enums.MultiBaseType;
+import org.omnione.did.crypto.keypair.KeyPairInterface;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.ProofType;
+import org.omnione.did.data.model.profile.ReqE2e;
+import org.omnione.did.data.model.profile.verify.VerifyProcess;
+import org.omnione.did.data.model.profile.verify.VerifyProfile;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.omnione.did.common.util.JsonUtil.serializeAndSort;
+
+/**
+ * Service that keeps a bounded pool of signed VP profiles per VP policy, so that requesting a profile
+ * does not generate a key pair, resolve the verifier's DID Document and sign on the request thread.
+ *
+ * A pool is created when a profile of its policy is first requested, and is refilled in the background
+ * whenever a profile is taken from it. Profiles older than the maximum age are discarded, so the creation
+ * time in their proofs stays recent. A periodic sweep discards expired profiles and profiles signed with a
+ * verifier key that is no longer current, and drops the pools of policies that have not been requested
+ * within the maximum age. If a pool is empty, the profile is minted on the request thread.
+ */
+@Service
+@Slf4j
+@Profile("!sample")
+public class VpProfilePoolServiceImpl implements VpProfilePoolService {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final FileLoaderService fileLoaderService;
+    private final FileWalletService walletService;
+    private final DidDocService didDocService;
+    private final VerifierProperty verifierProperty;
+    private final VpProfilePoolProperty vpProfilePoolProperty;
+    private final ScheduledExecutorService vpProfileMintingExecutor;
+    private final ConcurrentHashMap<String, PolicyPool> pools = new ConcurrentHashMap<>();
+    private final Counter mintedCounter;
+    private final Counter starvedCounter;
+    private final Counter discardedCounter;
+
+    public VpProfilePoolServiceImpl(FileLoaderService fileLoaderService,
+                                    FileWalletService walletService,
+                                    DidDocService didDocService,
+                                    VerifierProperty verifierProperty,
+                                    VpProfilePoolProperty vpProfilePoolProperty,
+                                    ScheduledExecutorService vpProfileMintingExecutor,
+                                    MeterRegistry meterRegistry) {
+        this.fileLoaderService = fileLoaderService;
+        this.walletService = walletService;
+        this.didDocService = didDocService;
+        this.verifierProperty = verifierProperty;
+        this.vpProfilePoolProperty = vpProfilePoolProperty;
+        this.vpProfileMintingExecutor = vpProfileMintingExecutor;
+
+        Gauge.builder("vp.profile.pool.depth", pools, p -> p.values().stream().mapToInt(pool -> pool.profiles.size()).sum())
+                .description("Number of pre-minted VP profiles ready to be handed out")
+                .register(meterRegistry);
+        this.mintedCounter = Counter.builder("vp.profile.pool.minted")
+                .description("Number of VP profiles minted in the background")
+                .register(meterRegistry);
+        this.starvedCounter = Counter.builder("vp.profile.pool.starved")
+                .description("Number of VP profile requests that found the pool empty")
+                .register(meterRegistry);
+        this.discardedCounter = Counter.builder("vp.profile.pool.discarded")
+                .description("Number of pre-minted VP profiles discarded before use")
+                .register(meterRegistry);
+    }
+
+    private static class PolicyPool {
+        private final BlockingQueue<MintedProfile> profiles;
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile long lastTakenAt;
+
+        private PolicyPool(int size) {
+            this.profiles = new LinkedBlockingQueue<>(size);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (vpProfilePoolProperty.isEnabled()) {
+            long interval = vpProfilePoolProperty.getSweepInterval().toMillis();
+            vpProfileMintingExecutor.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public MintedProfile takeProfile(String policyId) {
+        if (!vpProfilePoolProperty.isEnabled()) {
+            return mintProfile(policyId);
+        }
+
+        long now = System.currentTimeMillis();
+        long oldest = now - vpProfilePoolProperty.getMaxAge().toMillis();
+        PolicyPool pool = pools.computeIfAbsent(policyId, id -> new PolicyPool(Math.max(1, vpProfilePoolProperty.getSize())));
+        pool.lastTakenAt = now;
+        MintedProfile profile;
+        while ((profile = pool.profiles.poll()) != null) {
+            if (profile.mintedAt() > oldest) {
+                refill(policyId, pool);
+                return profile;
+            }
+            discardedCounter.increment();
+        }
+
+        starvedCounter.increment();
+        refill(policyId, pool);
+        return mintProfile(policyId);
+    }
+
+    @Override
+    public void invalidate(String policyId) {
+        // A refill in progress stops as soon as its pool is no longer the current one
+        PolicyPool pool = pools.remove(policyId);
+        if (pool != null) {
+            discardedCounter.increment(pool.profiles.size());
+            pool.profiles.clear();
+        }
+    }
+
+    /**
+     * Start refilling a pool in the background, unless it is full or already being refilled.
+     */
+    private void refill(String policyId, PolicyPool pool) {
+        if (pool.profiles.remainingCapacity() == 0 || !pool.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            vpProfileMintingExecutor.execute(() -> fill(policyId, pool));
+        } catch (RejectedExecutionException e) {
+            pool.refilling.set(false);
+        }
+    }
+
+    private void fill(String policyId, PolicyPool pool) {
+        try {
+            while (pool.profiles.remainingCapacity() > 0 && pools.get(policyId) == pool) {
+                if (!pool.profiles.offer(mintProfile(policyId))) {
+                    break;
+                }
+                mintedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            // Retried on the next request or sweep
+            log.warn("Failed to mint VP profile for policy {}: {}", policyId, e.getMessage());
+        } finally {
+            pool.refilling.set(false);
+        }
+    }
+
+    /**
+     * Discard expired profiles and profiles signed with a verifier key that is no longer current,
+     * drop the pools of policies that have not been requested recently, and refill the others.
+     */
+    private void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            long oldest = now - vpProfilePoolProperty.getMaxAge().toMillis();
+            String verificationMethod = getVerificationMethod(didDocService.getDidDocument(verifierProperty.getDid()));
+            pools.forEach((policyId, pool) -> {
+                if (pool.lastTakenAt <= oldest) {
+                    invalidate(policyId);
+                    return;
+                }
+                pool.profiles.removeIf(profile -> {
+                    boolean stale = profile.mintedAt() <= oldest
+                            || !verificationMethod.equals(profile.verificationMethod());
+                    if (stale) {
+                        discardedCounter.increment();
+                    }
+                    return stale;
+                });
+                refill(policyId, pool);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to sweep the VP profile pool: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mint a signed VP profile for a VP policy: a copy of the policy's profile with a fresh ID,
+     * E2E key pair and verifier nonce, signed with the verifier's assertion key.
+     *
+     * @param policyId The ID of the VP policy.
+     * @return The signed VP profile.
+     * @throws OpenDidException if the policy is not found or the profile cannot be signed.
+     */
+    private MintedProfile mintProfile(String policyId) {
+        VerifyProfile verifyProfile = fileLoaderService.getPolicyById(policyId).newVerifyProfile();
+
+        String verifierNonce = BaseMultibaseUtil.encode(BaseCryptoUtil.generateNonce(16), MultiBaseType.base64);
+        verifyProfile.setId(UUID.randomUUID().toString());
+        VerifyProcess process = verifyProfile.getProfile().getProcess();
+        ReqE2e reqE2e = process.getReqE2e();
+        EccCurveType eccCurveType = EccCurveType.fromValue(reqE2e.getCurve());
+        KeyPairInterface keyPair = BaseCryptoUtil.generateKeyPair(eccCurveType);
+        byte[] compressedPublicKey = BaseCryptoUtil.compressPublicKey(keyPair.getPublicKey().getEncoded(), eccCurveType);
+        reqE2e.setPublicKey(BaseMultibaseUtil.encode(compressedPublicKey, MultiBaseType.base58btc));
+        reqE2e.setNonce(verifierNonce);
+        process.setVerifierNonce(verifierNonce);
+
+        DidDocument verifierDidDoc = didDocService.getDidDocument(verifierProperty.getDid());
+        String verificationMethod = getVerificationMethod(verifierDidDoc);
+        Proof proof = new Proof();
+        proof.setType(ProofType.SECP256R1_SIGNATURE_2018.getRawValue());
+        proof.setCreated(DateTimeUtil.getCurrentUTCTimeString());
+        proof.setProofPurpose(ProofPurpose.ASSERTION_METHOD.toString());
+        proof.setVerificationMethod(verificationMethod);
+        verifyProfile.setProof(proof);
+
+        try {
+            byte[] signatureBytes = walletService.generateCompactSignature("assert", serializeAndSort(verifyProfile));
+            proof.setProofValue(BaseMultibaseUtil.encode(signatureBytes, MultiBaseType.base58btc));
+        } catch (JsonProcessingException e) {
+            throw new OpenDidException(ErrorCode.JSON_PARSE_ERROR);
+        }
+
+        try {
+            return new MintedProfile(verifyProfile, OBJECT_MAPPER.writeValueAsString(verifyProfile),
+                    BaseMultibaseUtil.encode(keyPair.getPrivateKey().getEncoded()), verificationMethod,
+                    System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new OpenDidException(ErrorCode.VERIFY_PROFILE_PARSE_ERROR);
+        }
+    }
+
+    /**
+     * Build the versioned key URL of the verifier's assertion key.
+     */
+    private String getVerificationMethod(DidDocument verifierDidDoc) {
+        VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(verifierDidDoc, ProofPurpose.ASSERTION_METHOD.toKeyId());
+        return verifierDidDoc.getId() + "?versionId=" + verifierDidDoc.getVersionId() + "#" + verificationMethod.getId();
+    }
+}
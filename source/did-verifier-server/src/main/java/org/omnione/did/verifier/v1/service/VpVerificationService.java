@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+
+import java.util.List;
+
+/**
+ * Service interface for verifying Verifiable Presentations.
+ */
+public interface VpVerificationService {
+    /**
+     * Checks the expiry of a Verifiable Presentation and that its credentials match a filter.
+     * These checks need no DID Documents and no signatures, so they are done before the presentation is verified.
+     *
+     * @param verifiablePresentation The VerifiablePresentation to check.
+     * @param presentationFilter The compiled filter the credentials must match.
+     * @throws org.omnione.did.base.exception.OpenDidException if the presentation is expired or does not match.
+     */
+    void checkPresentation(VerifiablePresentation verifiablePresentation, PresentationFilter presentationFilter);
+
+    /**
+     * Verifies the proofs of a Verifiable Presentation against the DID Documents of its holder and issuers.
+     *
+     * @param verifiablePresentation The VerifiablePresentation to verify.
+     * @param holderDidDocument The DID Document of the holder.
+     * @param issuerDidDocuments The DID Documents of the issuers, in the order of the presentation's credentials.
+     * @throws org.omnione.did.base.exception.OpenDidException if the verification fails.
+     */
+    void verifyPresentation(VerifiablePresentation verifiablePresentation, DidDocument holderDidDocument,
+                            List<DidDocument> issuerDidDocuments);
+
+    /**
+     * Forgets the verified credentials of an issuer, so that they are verified again on their next presentation.
+     *
+     * @param did The DID identifier or DID key URL of the issuer.
+     */
+    void evictVerifiedCredentials(String did);
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.VpVerificationProperty;
+import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.util.BaseCryptoUtil;
+import org.omnione.did.base.util.BaseDigestUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.VerifyUtil;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.ProofType;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.omnione.did.data.model.vp.VpProof;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Verifies Verifiable Presentations.
+ *
+ * The checks of VpManager are performed with each piece of work done once: the expiry of the presentation
+ * and the filter are checked first, since they are cheap, before any DID Document is resolved; then the holder's
+ * proof is verified once on the calling thread while the credentials are verified concurrently on the verification
+ * executor, each against the DID Document of its own issuer. The first failure fails the verification, and credentials that have
+ * not started yet are skipped.
+ *
+ * A successful credential verification is remembered, keyed by a digest of the credential together with the
+ * issuer DID Document version and public key it was verified with, until the configured time-to-live or the
+ * credential's validUntil, whichever comes first. When the same credential is presented again, only the
+ * holder's proof is verified. A new issuer key or DID Document version yields a new key, and an invalidation of
+ * the issuer's DID drops its remembered credentials.
+ */
+@Slf4j
+@Service
+public class VpVerificationServiceImpl implements VpVerificationService {
+    private final ExecutorService vcVerificationExecutor;
+    private final VpVerificationProperty vpVerificationProperty;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+    private final Counter verifiedCacheHitCounter;
+
+    public VpVerificationServiceImpl(ExecutorService vcVerificationExecutor,
+                                     VpVerificationProperty vpVerificationProperty,
+                                     MeterRegistry meterRegistry) {
+        this.vcVerificationExecutor = vcVerificationExecutor;
+        this.vpVerificationProperty = vpVerificationProperty;
+        this.verifiedCredentialCache = new VerifiedCredentialCache(vpVerificationProperty.getVerifiedCacheMaxSize());
+        this.verifiedCacheHitCounter = Counter.builder("vc.verification.cache.hits")
+                .description("Credential verifications answered from the verified credential cache")
+                .register(meterRegistry);
+        Gauge.builder("vc.verification.cache.size", verifiedCredentialCache, VerifiedCredentialCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the expiry of a Verifiable Presentation and that its credentials match a filter.
+     *
+     * @param verifiablePresentation The VerifiablePresentation to check.
+     * @param presentationFilter The compiled filter the credentials must match.
+     * @throws OpenDidException if the presentation is expired or does not match.
+     */
+    @Override
+    public void checkPresentation(VerifiablePresentation verifiablePresentation, PresentationFilter presentationFilter) {
+        try {
+            if (VerifyUtil.isExpired(verifiablePresentation.getValidUntil())) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VP);
+            }
+            presentationFilter.check(verifiablePresentation.getVerifiableCredential());
+        } catch (CoreException e) {
+            throw toVerifyError(e);
+        }
+    }
+
+    /**
+     * Verifies the proofs of a Verifiable Presentation against the DID Documents of its holder and issuers.
+     *
+     * @param verifiablePresentation The VerifiablePresentation to verify.
+     * @param holderDidDocument The DID Document of the holder.
+     * @param issuerDidDocuments The DID Documents of the issuers, in the order of the presentation's credentials.
+     * @throws OpenDidException if the verification fails.
+     */
+    @Override
+    public void verifyPresentation(VerifiablePresentation verifiablePresentation, DidDocument holderDidDocument,
+                                   List<DidDocument> issuerDidDocuments) {
+        List<VerifiableCredential> verifiableCredentials = verifiablePresentation.getVerifiableCredential();
+        if (verifiableCredentials.size() == 1) {
+            verifyHolder(verifiablePresentation, holderDidDocument);
+            verifyCredential(verifiableCredentials.get(0), issuerDidDocuments.get(0));
+            return;
+        }
+
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(verifiableCredentials.size());
+        for (int i = 0; i < verifiableCredentials.size(); i++) {
+            VerifiableCredential verifiableCredential = verifiableCredentials.get(i);
+            DidDocument issuerDidDocument = issuerDidDocuments.get(i);
+            tasks.add(CompletableFuture
+                    .runAsync(() -> verifyCredential(verifiableCredential, issuerDidDocument), vcVerificationExecutor)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            failure.completeExceptionally(ex);
+                        }
+                    }));
+        }
+
+        try {
+            verifyHolder(verifiablePresentation, holderDidDocument);
+            CompletableFuture.anyOf(failure, CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof OpenDidException openDidException
+                    ? openDidException : new OpenDidException(ErrorCode.VP_VERIFY_ERROR);
+        } finally {
+            tasks.forEach(task -> task.cancel(false));
+        }
+    }
+
+    /**
+     * Forgets the verified credentials of an issuer.
+     *
+     * @param did The DID identifier or DID key URL of the issuer.
+     */
+    @Override
+    public void evictVerifiedCredentials(String did) {
+        int endIndex = did.length();
+        for (char delimiter : new char[]{'?', '#'}) {
+            int index = did.indexOf(delimiter);
+            if (index >= 0) {
+                endIndex = Math.min(endIndex, index);
+            }
+        }
+        verifiedCredentialCache.invalidateIssuer(did.substring(0, endIndex));
+    }
+
+    /**
+     * Verifies the holder's proofs of the presentation.
+     * Each proof signs the presentation with that proof in place and without its proof value.
+     *
+     * @param verifiablePresentation The VerifiablePresentation.
+     * @param holderDidDocument The DID Document of the holder.
+     * @throws OpenDidException if a proof cannot be verified.
+     */
+    private void verifyHolder(VerifiablePresentation verifiablePresentation, DidDocument holderDidDocument) {
+        boolean multipleProofs = verifiablePresentation.getProof() == null;
+        List<VpProof> proofs = multipleProofs
+                ? verifiablePresentation.getProofs() : List.of(verifiablePresentation.getProof());
+        if (proofs == null || proofs.isEmpty()) {
+            log.error("Verifiable Presentation has no proof");
+            throw new OpenDidException(ErrorCode.VP_VERIFY_ERROR);
+        }
+
+        try {
+            String presentationJson = verifiablePresentation.toJson();
+            for (VpProof proof : proofs) {
+                VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(
+                        holderDidDocument, proof.getVerificationMethod().split("#")[1]);
+                if (verificationMethod == null) {
+                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_SIGNING_KEY);
+                }
+
+                VpProof unsignedProof = new VpProof();
+                unsignedProof.setType(proof.getType());
+                unsignedProof.setCreated(proof.getCreated());
+                unsignedProof.setVerificationMethod(proof.getVerificationMethod());
+                unsignedProof.setProofPurpose(proof.getProofPurpose());
+
+                VerifiablePresentation unsignedPresentation = new VerifiablePresentation();
+                unsignedPresentation.fromJson(presentationJson);
+                unsignedPresentation.setProof(unsignedProof);
+                if (multipleProofs) {
+                    unsignedPresentation.setProofs(null);
+                }
+
+                SignatureParams signatureParams = new SignatureParams();
+                signatureParams.setOriginData(unsignedPresentation.toJson());
+                signatureParams.setSignatureValue(proof.getProofValue());
+                signatureParams.setPublicKey(verificationMethod.getPublicKeyMultibase());
+                signatureParams.setAlgorithm(proof.getType());
+                signatureParams.setKeyPurpose(proof.getProofPurpose());
+                verifySignature(signatureParams);
+            }
+        } catch (CoreException e) {
+            throw toVerifyError(e);
+        }
+    }
+
+    /**
+     * Verifies a credential's proof and expiry against the DID Document of its issuer,
+     * unless the same credential was already verified with the same issuer key.
+     *
+     * @param verifiableCredential The VerifiableCredential.
+     * @param issuerDidDocument The DID Document of the issuer.
+     * @throws OpenDidException if the credential cannot be verified.
+     */
+    private void verifyCredential(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument) {
+        String cacheKey = vpVerificationProperty.isVerifiedCacheEnabled()
+                ? toVerifiedCredentialKey(verifiableCredential, issuerDidDocument) : null;
+        if (cacheKey != null && verifiedCredentialCache.isVerified(cacheKey)) {
+            verifiedCacheHitCounter.increment();
+            return;
+        }
+
+        try {
+            verifyCredentialProofs(verifiableCredential, issuerDidDocument);
+        } catch (CoreException e) {
+            throw toVerifyError(e);
+        }
+
+        if (cacheKey != null) {
+            long expiresAt = toVerifiedCredentialExpiry(verifiableCredential);
+            if (expiresAt > System.currentTimeMillis()) {
+                verifiedCredentialCache.recordVerified(cacheKey, verifiableCredential.getIssuer().getId(), expiresAt);
+            }
+        }
+    }
+
+    /**
+     * Verifies a credential's expiry and its issuer's signature, as VpManager does.
+     * The signature is either the proof value over the whole credential or, for a credential presented with
+     * selected claims, one proof value per claim. Unlike VpManager, a credential without a subject or proof
+     * is rejected rather than passed unsigned.
+     *
+     * @param verifiableCredential The VerifiableCredential.
+     * @param issuerDidDocument The DID Document of the issuer.
+     * @throws CoreException if the credential has expired or its signature cannot be verified.
+     */
+    private void verifyCredentialProofs(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument)
+            throws CoreException {
+        if (VerifyUtil.isExpired(verifiableCredential.getValidUntil())) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VC, verifiableCredential.getId());
+        }
+        if (verifiableCredential.getCredentialSubject() == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_PRIVACY_NOT_EXIST, verifiableCredential.getId());
+        }
+        List<Claim> claims = verifiableCredential.getCredentialSubject().getClaims();
+        if (claims == null || claims.isEmpty()) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_PRIVACY_NOT_EXIST, verifiableCredential.getId());
+        }
+        if (verifiableCredential.getProof() == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL);
+        }
+
+        String credentialJson = verifiableCredential.toJson();
+        VerifiableCredential unsignedCredential = new VerifiableCredential();
+        String proofValue = verifiableCredential.getProof().getProofValue();
+        List<String> proofValues = verifiableCredential.getProof().getProofValueList();
+        if (proofValue != null && !proofValue.isEmpty()) {
+            unsignedCredential.fromJson(credentialJson);
+            verifySignature(VerifyUtil.getSignatureVcParams(unsignedCredential, issuerDidDocument, false, proofValue));
+        } else if (proofValues != null && proofValues.size() >= claims.size()) {
+            for (int i = 0; i < claims.size(); i++) {
+                unsignedCredential.fromJson(credentialJson);
+                unsignedCredential.getCredentialSubject().setClaims(List.of(claims.get(i)));
+                verifySignature(VerifyUtil.getSignatureVcParams(unsignedCredential, issuerDidDocument, true,
+                        proofValues.get(i)));
+            }
+        } else {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL);
+        }
+    }
+
+    /**
+     * Verifies the signature described by the given parameters, as VerifyUtil does.
+     * The public key is taken from the public key cache, so keys that sign many proofs,
+     * such as those of issuers and returning holders, are not decoded again for every signature
+     * and are verified with their precomputed multiples.
+     *
+     * @param signatureParams The signed data, signature, public key and algorithm.
+     * @throws CoreException if the signature cannot be verified.
+     */
+    private void verifySignature(SignatureParams signatureParams) throws CoreException {
+        EccCurveType eccCurveType = ProofType.fromString(signatureParams.getAlgorithm()) == ProofType.SECP256K1_SIGNATURE_2018
+                ? EccCurveType.SECP_256_K1 : EccCurveType.SECP_256_R1;
+        try {
+            byte[] hashedData = BaseDigestUtil.generateHash(signatureParams.getOriginData().getBytes(StandardCharsets.UTF_8));
+            BaseCryptoUtil.verifySignature(signatureParams.getPublicKey(), signatureParams.getSignatureValue(),
+                    hashedData, eccCurveType);
+        } catch (OpenDidException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the key under which the verification of a credential is remembered:
+     * a digest of the credential, the issuer DID Document version and the public key of the proof.
+     *
+     * @param verifiableCredential The VerifiableCredential.
+     * @param issuerDidDocument The DID Document of the issuer.
+     * @return The key, or null if the credential's proof does not name a key of the DID Document.
+     */
+    private String toVerifiedCredentialKey(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument) {
+        try {
+            if (verifiableCredential.getProof() == null || verifiableCredential.getIssuer() == null) {
+                return null;
+            }
+            String verificationMethodId = verifiableCredential.getProof().getVerificationMethod();
+            int keyIdIndex = (verificationMethodId == null) ? -1 : verificationMethodId.indexOf('#');
+            if (keyIdIndex < 0) {
+                return null;
+            }
+            VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(
+                    issuerDidDocument, verificationMethodId.substring(keyIdIndex + 1));
+            if (verificationMethod == null) {
+                return null;
+            }
+
+            String keyData = verifiableCredential.toJson() + "\n" + issuerDidDocument.getId() + "\n"
+                    + issuerDidDocument.getVersionId() + "\n" + verificationMethod.getPublicKeyMultibase();
+            return BaseMultibaseUtil.encode(BaseDigestUtil.generateHash(keyData.getBytes(StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            log.debug("Not remembering the verification of credential: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the time until which the verification of a credential may be remembered.
+     *
+     * @param verifiableCredential The VerifiableCredential.
+     * @return The expiry in milliseconds, or 0 if the validity of the credential cannot be read.
+     */
+    private long toVerifiedCredentialExpiry(VerifiableCredential verifiableCredential) {
+        try {
+            long validUntil = Instant.parse(verifiableCredential.getValidUntil()).toEpochMilli();
+            return Math.min(validUntil,
+                    System.currentTimeMillis() + vpVerificationProperty.getVerifiedCacheTtl().toMillis());
+        } catch (DateTimeParseException | NullPointerException e) {
+            return 0;
+        }
+    }
+
+    private OpenDidException toVerifyError(CoreException e) {
+        log.error("Failed to verify Verifiable Presentation: {}", e.getMessage());
+        return new OpenDidException(ErrorCode.VP_VERIFY_ERROR);
+    }
+}
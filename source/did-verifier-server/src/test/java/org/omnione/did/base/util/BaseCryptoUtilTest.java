@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.base.crypto.CryptoProvider;
+import org.omnione.did.base.crypto.CryptoProviderType;
+import org.omnione.did.base.datamodel.data.KeyMaterial;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.util.SignatureUtils;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BaseCryptoUtilTest {
+    private static final EccCurveType CURVE = EccCurveType.SECP_256_R1;
+
+    @AfterEach
+    void tearDown() {
+        useSignatureProvider(CryptoProviderType.SDK);
+    }
+
+    @Test
+    @DisplayName("The SDK provider verifies compressed keys without decoding them into the public key cache")
+    void testSdkProviderSkipsPublicKeyCache() throws Exception {
+        useSignatureProvider(CryptoProviderType.SDK);
+        EcKeyPair keyPair = (EcKeyPair) BaseCryptoUtil.generateKeyPair(CURVE);
+        int cacheSize = BaseCryptoUtil.getPublicKeyCacheSize();
+
+        KeyMaterial keyMaterial = BaseCryptoUtil.toKeyMaterial("did:omn:holder#assert", verificationMethod(keyPair));
+        assertNull(keyMaterial.getPublicKey());
+        verifyAndReject(keyPair, keyMaterial);
+
+        assertEquals(cacheSize, BaseCryptoUtil.getPublicKeyCacheSize());
+    }
+
+    @Test
+    @DisplayName("The Bouncy Castle provider verifies public keys decoded through the public key cache")
+    void testBouncyCastleProviderUsesPublicKeyCache() throws Exception {
+        useSignatureProvider(CryptoProviderType.BOUNCY_CASTLE);
+        EcKeyPair keyPair = (EcKeyPair) BaseCryptoUtil.generateKeyPair(CURVE);
+        int cacheSize = BaseCryptoUtil.getPublicKeyCacheSize();
+
+        KeyMaterial keyMaterial = BaseCryptoUtil.toKeyMaterial("did:omn:holder#assert", verificationMethod(keyPair));
+        assertNotNull(keyMaterial.getPublicKey());
+        verifyAndReject(keyPair, keyMaterial);
+
+        assertEquals(cacheSize + 1, BaseCryptoUtil.getPublicKeyCacheSize());
+    }
+
+    private static void verifyAndReject(EcKeyPair keyPair, KeyMaterial keyMaterial) throws Exception {
+        byte[] signData = BaseCryptoUtil.sha256("signed".getBytes(StandardCharsets.UTF_8));
+        String signature = BaseMultibaseUtil.encode(
+                SignatureUtils.generateCompactSignature(keyPair, signData, CURVE.toOmnioneEccCurveType()));
+        String encodedPublicKey = keyMaterial.getVerificationMethod().getPublicKeyMultibase();
+        byte[] otherData = BaseCryptoUtil.sha256("other".getBytes(StandardCharsets.UTF_8));
+
+        assertDoesNotThrow(() -> BaseCryptoUtil.verifySignature(encodedPublicKey, signature, signData, CURVE));
+        assertDoesNotThrow(() -> BaseCryptoUtil.verifySignature(keyMaterial, signature, signData));
+        OpenDidException e = assertThrows(OpenDidException.class,
+                () -> BaseCryptoUtil.verifySignature(keyMaterial, signature, otherData));
+        assertEquals(ErrorCode.SIGNATURE_VERIFICATION_FAILED, e.getErrorCode());
+    }
+
+    private static void useSignatureProvider(CryptoProviderType type) {
+        CryptoProvider sdk = CryptoProviderType.SDK.getProvider();
+        BaseCryptoUtil.setCryptoProviders(sdk, sdk, type.getProvider(), sdk, sdk);
+    }
+
+    private static VerificationMethod verificationMethod(EcKeyPair keyPair) {
+        VerificationMethod verificationMethod = new VerificationMethod();
+        verificationMethod.setId("assert");
+        verificationMethod.setType("Secp256r1VerificationKey2018");
+        verificationMethod.setPublicKeyMultibase(BaseMultibaseUtil.encode(
+                BaseCryptoUtil.compressPublicKey(keyPair.getPublicKey().getEncoded(), CURVE)));
+        return verificationMethod;
+    }
+}
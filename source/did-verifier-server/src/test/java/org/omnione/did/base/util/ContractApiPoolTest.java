@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.base.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.ContractApi;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.data.model.did.DidDocAndStatus;
+import org.omnione.did.data.model.did.InvokedDidDoc;
+import org.omnione.did.data.model.enums.did.DidDocStatus;
+import org.omnione.did.data.model.enums.vc.RoleType;
+import org.omnione.did.data.model.enums.vc.VcStatus;
+import org.omnione.did.data.model.vc.VcMeta;
+import org.omnione.exception.BlockChainException;
+import org.omnione.exception.BlockchainErrorCode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractApiPoolTest {
+    private static final String DID = "did:omn:holder";
+    private static final String MISSING_DID = "did:omn:missing";
+
+    private final List<FakeContractApi> clients = new ArrayList<>();
+
+    @Test
+    @DisplayName("A client that cannot reach the network is closed and replaced")
+    void testDiscardBrokenClient() {
+        try (ContractApiPool pool = createPool(new Properties())) {
+            assertNotNull(pool.findDidDocument(DID));
+            clients.get(0).connected = false;
+
+            OpenDidException e = assertThrows(OpenDidException.class, () -> pool.findDidDocument(DID));
+            assertEquals(ErrorCode.DID_STORAGE_UNAVAILABLE, e.getErrorCode());
+            assertTrue(clients.get(0).closed);
+
+            assertNotNull(pool.findDidDocument(DID));
+            assertEquals(2, clients.size());
+        }
+    }
+
+    @Test
+    @DisplayName("A client that finds no DID document is kept")
+    void testKeepClientWhenDidIsNotFound() {
+        try (ContractApiPool pool = createPool(new Properties())) {
+            OpenDidException e = assertThrows(OpenDidException.class, () -> pool.findDidDocument(MISSING_DID));
+            assertEquals(ErrorCode.BLOCKCHAIN_GET_DID_DOC_FAILED, e.getErrorCode());
+
+            assertNotNull(pool.findDidDocument(DID));
+            assertEquals(1, clients.size());
+            assertFalse(clients.get(0).closed);
+        }
+    }
+
+    @Test
+    @DisplayName("An idle client that fails validation is closed before it is borrowed")
+    void testValidateIdleClient() {
+        Properties properties = new Properties();
+        properties.setProperty("fabric.pool.testOnBorrow", "true");
+        properties.setProperty("fabric.pool.validationDidKeyUrl", MISSING_DID);
+        try (ContractApiPool pool = createPool(properties)) {
+            assertNotNull(pool.findDidDocument(DID));
+            clients.get(0).connected = false;
+
+            assertNotNull(pool.findDidDocument(DID));
+            assertTrue(clients.get(0).closed);
+            assertEquals(2, clients.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Closing the pool closes its idle clients and the metrics go to the given registry")
+    void testCloseAndMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ContractApiPool pool = new ContractApiPool(new Properties(), meterRegistry, this::createClient,
+                contractApi -> ((FakeContractApi) contractApi).closed = true);
+        pool.findDidDocument(DID);
+
+        assertEquals(1.0, meterRegistry.get("did.blockchain.pool.idle").gauge().value());
+        assertEquals(1, meterRegistry.get("did.blockchain.pool.borrow").timer().count());
+
+        pool.close();
+        assertTrue(clients.get(0).closed);
+    }
+
+    private ContractApiPool createPool(Properties properties) {
+        return new ContractApiPool(properties, new SimpleMeterRegistry(), this::createClient,
+                contractApi -> ((FakeContractApi) contractApi).closed = true);
+    }
+
+    private ContractApi createClient() {
+        FakeContractApi client = new FakeContractApi();
+        clients.add(client);
+        return client;
+    }
+
+    private static class FakeContractApi implements ContractApi {
+        private boolean connected = true;
+        private boolean closed;
+
+        @Override
+        public Object getDidDoc(String didKeyUrl) throws BlockChainException {
+            if (!connected) {
+                throw new BlockChainException(BlockchainErrorCode.CONNECTION_ERROR, null);
+            }
+            if (MISSING_DID.equals(didKeyUrl)) {
+                throw new BlockChainException(BlockchainErrorCode.TRANSACTION_ERROR, null);
+            }
+            return new DidDocAndStatus();
+        }
+
+        @Override
+        public void registDidDoc(InvokedDidDoc invokedDidDoc, RoleType roleType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object updateDidDocStatus(String didKeyUrl, DidDocStatus didDocStatus) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object updateDidDocStatus(String didKeyUrl, DidDocStatus didDocStatus, LocalDateTime terminatedTime) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registVcMetadata(VcMeta vcMeta) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getVcMetadata(String vcId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateVcStatus(String vcId, VcStatus vcStatus) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.data.model.did.DidDocument;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DidDocCacheTest {
+    private static final int BLOCK_SIZE = 256;
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    @DisplayName("The least frequently used entry is evicted when the off-heap store is full")
+    void testEvictWhenOffHeapStoreIsFull() {
+        OffHeapDocumentStore store = new OffHeapDocumentStore(4 * BLOCK_SIZE, BLOCK_SIZE);
+        DidDocCache cache = new DidDocCache(100, TTL_MILLIS, 0, store);
+        for (int i = 1; i <= 4; i++) {
+            cache.putDidDoc(did(i), didDocument(i));
+        }
+        for (int i = 1; i <= 3; i++) {
+            assertNotNull(cache.getDidDoc(did(i)));
+        }
+        assertFalse(store.hasRoomFor(1));
+
+        cache.putDidDoc(did(5), didDocument(5));
+
+        assertFalse(cache.containsDidDoc(did(4)));
+        for (int i : new int[] {1, 2, 3, 5}) {
+            assertTrue(cache.containsDidDoc(did(i)), did(i));
+        }
+        assertEquals(did(5), cache.getDidDoc(did(5)).getId());
+        assertEquals(4, cache.size());
+        assertEquals(store.getCapacityBytes(), store.getUsedBytes());
+    }
+
+    @Test
+    @DisplayName("A document larger than the off-heap store is not cached")
+    void testDocumentLargerThanOffHeapStore() {
+        OffHeapDocumentStore store = new OffHeapDocumentStore(BLOCK_SIZE / 2, BLOCK_SIZE / 4);
+        DidDocCache cache = new DidDocCache(100, TTL_MILLIS, 0, store);
+
+        cache.putDidDoc(did(1), didDocument(1));
+
+        assertNull(cache.getDidDoc(did(1)));
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    private static String did(int i) {
+        return "did:omn:holder" + i;
+    }
+
+    private static DidDocument didDocument(int i) {
+        DidDocument didDocument = new DidDocument();
+        didDocument.setContext(List.of("https://www.w3.org/ns/did/v1"));
+        didDocument.setId(did(i));
+        didDocument.setController("did:omn:tas");
+        didDocument.setCreated("2024-01-01T00:00:00Z");
+        didDocument.setUpdated("2024-01-01T00:00:00Z");
+        didDocument.setVersionId("1");
+        return didDocument;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.base.datamodel.enums.EccCurveType;
+import org.omnione.did.base.exception.ErrorCode;
+import org.omnione.did.base.exception.OpenDidException;
+import org.omnione.did.base.property.DidCacheProperty;
+import org.omnione.did.base.util.BaseCoreDidUtil;
+import org.omnione.did.base.util.BaseCryptoUtil;
+import org.omnione.did.base.util.BaseMultibaseUtil;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.util.SignatureUtils;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DidDocServiceImplTest {
+    private static final String HOLDER_DID = "did:omn:holder";
+
+    private final FakeStorageService storageService = new FakeStorageService();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final DidCacheProperty didCacheProperty = new DidCacheProperty();
+    private DidDocServiceImpl didDocService;
+
+    @BeforeEach
+    void setUp() {
+        didCacheProperty.setSnapshotEnabled(false);
+        didCacheProperty.setSharedCacheEnabled(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        didDocService.destroy();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A proof naming a rotated-out version is verified against the latest document and rejected")
+    void testOldVersionProofRejectedAfterRotation() throws Exception {
+        didCacheProperty.setTtl(Duration.ofMillis(1));
+        didDocService = newDidDocService();
+        EcKeyPair oldKey = generateKeyPair();
+        EcKeyPair newKey = generateKeyPair();
+        String keyUrl = HOLDER_DID + "?versionId=1#assert";
+        byte[] signData = BaseCryptoUtil.sha256("presentation".getBytes(StandardCharsets.UTF_8));
+        String signature = sign(oldKey, signData);
+
+        storageService.put(HOLDER_DID, didDocument("1", oldKey));
+        DidDocument didDocument = didDocService.getLatestDidDocuments(List.of(keyUrl)).get(keyUrl);
+        assertEquals("1", didDocument.getVersionId());
+        assertDoesNotThrow(() -> verify(didDocument, signature, signData));
+
+        // The key is rotated, and the latest document is fetched again once it has expired
+        storageService.put(HOLDER_DID, didDocument("2", newKey));
+        Thread.sleep(20);
+        DidDocument rotatedDidDocument = didDocService.getLatestDidDocuments(List.of(keyUrl)).get(keyUrl);
+
+        assertEquals("2", rotatedDidDocument.getVersionId());
+        OpenDidException e = assertThrows(OpenDidException.class, () -> verify(rotatedDidDocument, signature, signData));
+        assertEquals(ErrorCode.SIGNATURE_VERIFICATION_FAILED, e.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("A proof naming a version newer than the cached document fetches that version")
+    void testNewerVersionProofFetchesVersion() throws Exception {
+        didDocService = newDidDocService();
+        storageService.put(HOLDER_DID, didDocument("1", generateKeyPair()));
+        storageService.put(HOLDER_DID + "?versionId=2", didDocument("2", generateKeyPair()));
+        didDocService.getLatestDidDocuments(List.of(HOLDER_DID));
+
+        String newKeyUrl = HOLDER_DID + "?versionId=2#assert";
+        String oldKeyUrl = HOLDER_DID + "?versionId=1#assert";
+        assertEquals("2", didDocService.getLatestDidDocuments(List.of(newKeyUrl)).get(newKeyUrl).getVersionId());
+        assertEquals("2", didDocService.getLatestDidDocuments(List.of(oldKeyUrl)).get(oldKeyUrl).getVersionId());
+        assertEquals(Map.of(HOLDER_DID, 1, HOLDER_DID + "?versionId=2", 1), storageService.getLookups());
+    }
+
+    private DidDocServiceImpl newDidDocService() {
+        return new DidDocServiceImpl(storageService, null, didCacheProperty, new SimpleMeterRegistry(), executor);
+    }
+
+    private static EcKeyPair generateKeyPair() {
+        return (EcKeyPair) BaseCryptoUtil.generateKeyPair(EccCurveType.SECP_256_R1);
+    }
+
+    private static String sign(EcKeyPair keyPair, byte[] signData) throws Exception {
+        return BaseMultibaseUtil.encode(SignatureUtils.generateCompactSignature(keyPair, signData,
+                EccCurveType.SECP_256_R1.toOmnioneEccCurveType()));
+    }
+
+    private static void verify(DidDocument didDocument, String signature, byte[] signData) {
+        VerificationMethod verificationMethod = BaseCoreDidUtil.getVerificationMethod(didDocument, "assert");
+        BaseCryptoUtil.verifySignature(verificationMethod.getPublicKeyMultibase(), signature, signData,
+                EccCurveType.SECP_256_R1);
+    }
+
+    private static DidDocument didDocument(String versionId, EcKeyPair keyPair) {
+        VerificationMethod verificationMethod = new VerificationMethod();
+        verificationMethod.setId("assert");
+        verificationMethod.setType("Secp256r1VerificationKey2018");
+        verificationMethod.setController(HOLDER_DID);
+        verificationMethod.setPublicKeyMultibase(BaseMultibaseUtil.encode(BaseCryptoUtil.compressPublicKey(
+                keyPair.getPublicKey().getEncoded(), EccCurveType.SECP_256_R1)));
+        verificationMethod.setAuthType(1);
+
+        DidDocument didDocument = new DidDocument();
+        didDocument.setContext(List.of("https://www.w3.org/ns/did/v1"));
+        didDocument.setId(HOLDER_DID);
+        didDocument.setController(HOLDER_DID);
+        didDocument.setCreated("2024-01-01T00:00:00Z");
+        didDocument.setUpdated("2024-01-01T00:00:00Z");
+        didDocument.setVersionId(versionId);
+        didDocument.setVerificationMethod(List.of(verificationMethod));
+        didDocument.setAssertionMethod(List.of("assert"));
+        return didDocument;
+    }
+
+    /**
+     * A storage service answering from a map and counting the lookups per DID key URL.
+     */
+    private static class FakeStorageService implements StorageService {
+        private final Map<String, DidDocument> didDocuments = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+        void put(String didKeyUrl, DidDocument didDocument) {
+            didDocuments.put(didKeyUrl, didDocument);
+        }
+
+        Map<String, Integer> getLookups() {
+            return lookups.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get()));
+        }
+
+        @Override
+        public DidDocument findDidDoc(String didKeyUrl) {
+            lookups.computeIfAbsent(didKeyUrl, key -> new AtomicInteger()).incrementAndGet();
+            DidDocument didDocument = didDocuments.get(didKeyUrl);
+            if (didDocument == null) {
+                throw new OpenDidException(ErrorCode.FAILED_TO_FIND_DID_DOC);
+            }
+            return didDocument;
+        }
+
+        @Override
+        public CompletableFuture<DidDocument> findDidDocAsync(String didKeyUrl) {
+            try {
+                return CompletableFuture.completedFuture(findDidDoc(didKeyUrl));
+            } catch (OpenDidException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
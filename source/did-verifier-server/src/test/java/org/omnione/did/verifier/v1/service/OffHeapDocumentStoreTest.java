@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapDocumentStoreTest {
+
+    @Test
+    @DisplayName("Stored bytes are loaded back across several blocks")
+    void testStoreAndLoad() {
+        OffHeapDocumentStore store = new OffHeapDocumentStore(64, 4);
+        byte[] bytes = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+        OffHeapDocumentStore.Slot slot = store.store(bytes);
+
+        assertNotNull(slot);
+        assertEquals(bytes.length, slot.getLength());
+        assertArrayEquals(bytes, store.load(slot));
+        assertEquals(12, store.getUsedBytes());
+    }
+
+    @Test
+    @DisplayName("A freed slot reads as absent and freeing it twice has no effect")
+    void testFree() {
+        OffHeapDocumentStore store = new OffHeapDocumentStore(64, 4);
+        OffHeapDocumentStore.Slot slot = store.store(new byte[6]);
+
+        store.free(slot);
+        store.free(slot);
+
+        assertNull(store.load(slot));
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    @Test
+    @DisplayName("Freed blocks are reused when the store is full")
+    void testReuseFreedBlocks() {
+        OffHeapDocumentStore store = new OffHeapDocumentStore(16, 4);
+        OffHeapDocumentStore.Slot[] slots = new OffHeapDocumentStore.Slot[4];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = store.store(new byte[] {(byte) i, (byte) i, (byte) i, (byte) i});
+        }
+        assertFalse(store.hasRoomFor(1));
+        assertNull(store.store(new byte[1]));
+
+        store.free(slots[1]);
+        assertTrue(store.hasRoomFor(4));
+        assertFalse(store.hasRoomFor(5));
+        byte[] bytes = {9, 9, 9};
+        OffHeapDocumentStore.Slot reused = store.store(bytes);
+
+        assertNotNull(reused);
+        assertArrayEquals(bytes, store.load(reused));
+        assertNull(store.load(slots[1]));
+        assertArrayEquals(new byte[] {2, 2, 2, 2}, store.load(slots[2]));
+        assertEquals(store.getCapacityBytes(), store.getUsedBytes());
+    }
+}
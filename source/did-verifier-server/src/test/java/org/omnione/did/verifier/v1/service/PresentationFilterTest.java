@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.omnione.did.verifier.v1.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.VpManager;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.CredentialSubject;
+import org.omnione.did.data.model.vc.Issuer;
+import org.omnione.did.data.model.vc.VcProof;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PresentationFilterTest {
+
+    @Test
+    @DisplayName("Compiled filter matches the VpManager filter check on random presentations")
+    void testMatchesVpManager() throws Exception {
+        Method checkFilter = VpManager.class.getDeclaredMethod("checkFilter", Filter.class, List.class);
+        checkFilter.setAccessible(true);
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            Filter filter = randomFilter(random);
+            List<VerifiableCredential> verifiableCredentials = randomCredentials(random);
+
+            String expected = "ok";
+            try {
+                checkFilter.invoke(new VpManager(), filter, verifiableCredentials);
+            } catch (InvocationTargetException e) {
+                expected = e.getCause().getMessage();
+            }
+            String actual = "ok";
+            try {
+                PresentationFilter.compile(filter).check(verifiableCredentials);
+            } catch (CoreException e) {
+                actual = e.getMessage();
+            }
+            assertEquals(expected, actual, "case " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Selectively disclosed credentials pass when the schema does not require all claims")
+    void testSelectiveDisclosure() throws Exception {
+        Filter filter = filter(schema("s1", "T", List.of("i1"), List.of("a"), false));
+        PresentationFilter.compile(filter).check(List.of(credential("s1", "T", "i1", List.of("a"), null)));
+    }
+
+    @Test
+    @DisplayName("Credentials without a proof value fail when the schema requires all claims")
+    void testPresentAllRequiresProofValue() {
+        Filter filter = filter(schema("s1", "T", List.of("i1"), List.of("a"), true));
+        CoreException e = assertThrows(CoreException.class, () -> PresentationFilter.compile(filter)
+                .check(List.of(credential("s1", "T", "i1", List.of("a"), null))));
+        assertEquals(new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_PROOFVALUE).getMessage(), e.getMessage());
+    }
+
+    private static Filter randomFilter(Random random) {
+        List<CredentialSchema> credentialSchemas = new ArrayList<>();
+        for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+            credentialSchemas.add(schema(pick(random, "s1", "s2", "s3"), pick(random, "T", "U"),
+                    some(random, "i1", "i2", "i3"), some(random, "a", "b", "c", "d"),
+                    random.nextInt(3) == 0 ? null : random.nextBoolean()));
+        }
+        Filter filter = new Filter();
+        filter.setCredentialSchemas(credentialSchemas);
+        return filter;
+    }
+
+    private static List<VerifiableCredential> randomCredentials(Random random) {
+        List<VerifiableCredential> verifiableCredentials = new ArrayList<>();
+        for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+            verifiableCredentials.add(credential(pick(random, "s1", "s2", "s3"), pick(random, "T", "U"),
+                    random.nextInt(5) == 0 ? null : pick(random, "i1", "i2", "i3", "i4"),
+                    some(random, "a", "b", "c", "d", "e", "a"), pick(random, "", "v", null)));
+        }
+        return verifiableCredentials;
+    }
+
+    private static Filter filter(CredentialSchema... credentialSchemas) {
+        Filter filter = new Filter();
+        filter.setCredentialSchemas(List.of(credentialSchemas));
+        return filter;
+    }
+
+    private static CredentialSchema schema(String id, String type, List<String> allowedIssuers,
+                                           List<String> requiredClaims, Boolean presentAll) {
+        CredentialSchema credentialSchema = new CredentialSchema();
+        credentialSchema.setId(id);
+        credentialSchema.setType(type);
+        credentialSchema.setAllowedIssuers(allowedIssuers);
+        credentialSchema.setRequiredClaims(requiredClaims);
+        credentialSchema.setPresentAll(presentAll);
+        return credentialSchema;
+    }
+
+    private static VerifiableCredential credential(String schemaId, String schemaType, String issuerId,
+                                                   List<String> claimCodes, String proofValue) {
+        VerifiableCredential verifiableCredential = new VerifiableCredential();
+        verifiableCredential.setCredentialSchema(schema(schemaId, schemaType, null, null, null));
+        Issuer issuer = new Issuer();
+        issuer.setId(issuerId);
+        verifiableCredential.setIssuer(issuer);
+        List<Claim> claims = new ArrayList<>();
+        for (String code : claimCodes) {
+            Claim claim = new Claim();
+            claim.setCode(code);
+            claims.add(claim);
+        }
+        CredentialSubject credentialSubject = new CredentialSubject();
+        credentialSubject.setClaims(claims);
+        verifiableCredential.setCredentialSubject(credentialSubject);
+        VcProof proof = new VcProof();
+        proof.setProofValue(proofValue);
+        verifiableCredential.setProof(proof);
+        return verifiableCredential;
+    }
+
+    private static String pick(Random random, String... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static List<String> some(Random random, String... values) {
+        List<String> selected = new ArrayList<>();
+        for (String value : values) {
+            if (random.nextBoolean()) {
+                selected.add(value);
+            }
+        }
+        return selected;
+    }
+}
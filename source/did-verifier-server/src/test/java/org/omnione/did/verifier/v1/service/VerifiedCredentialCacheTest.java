@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.verifier.v1.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedCredentialCacheTest {
+    private static final String ISSUER = "did:omn:issuer";
+
+    @Test
+    @DisplayName("The least recently used entry is evicted when the cache is full of unexpired entries")
+    void testEvictLeastRecentlyUsedWhenFull() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(3);
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 1; i <= 3; i++) {
+            cache.recordVerified("vc" + i, ISSUER, expiresAt);
+        }
+        assertTrue(cache.isVerified("vc1"));
+
+        cache.recordVerified("vc4", ISSUER, expiresAt);
+
+        assertFalse(cache.isVerified("vc2"));
+        assertTrue(cache.isVerified("vc1"));
+        assertTrue(cache.isVerified("vc3"));
+        assertTrue(cache.isVerified("vc4"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    @DisplayName("An expired entry is not verified and is dropped on lookup")
+    void testDropExpiredEntry() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(3);
+        cache.recordVerified("expired", ISSUER, System.currentTimeMillis() - 1);
+
+        assertFalse(cache.isVerified("expired"));
+        assertEquals(0, cache.size());
+    }
+}